@@ -29,4 +29,7 @@ export const API_ENDPOINTS = {
   AUTH: `${API_BASE_URL}/api/users`,
 };
 
+// Images stored by the backend itself come back as server-relative paths
+export const resolveImageUrl = (url) => (url && url.startsWith('/') ? `${API_BASE_URL}${url}` : url);
+
 export default API_ENDPOINTS;
@@ -1,6 +1,7 @@
 import React from 'react';
 import { Card, CardContent, CardMedia, Typography, Chip, Box, Button, Fade } from '@mui/material';
 import { styled } from '@mui/material/styles';
+import { resolveImageUrl } from '../api/config';
 
 const AnimatedCard = styled(Card)(({ theme }) => ({
   transition: 'transform 0.2s, box-shadow 0.2s',
@@ -31,7 +32,7 @@ export default function ProductCard({ product, onAddToCart }) {
         <CardMedia
           component="img"
           height="140"
-          image={product.imageUrl || "https://source.unsplash.com/featured/?product"}
+          image={resolveImageUrl(product.thumbnailUrl || product.imageUrl) || "https://source.unsplash.com/featured/?product"}
           alt={product.name}
           sx={{ borderTopLeftRadius: 18, borderTopRightRadius: 18 }}
         />
@@ -1,4 +1,4 @@
-import React, { useState } from 'react';
+import React, { useRef, useState } from 'react';
 import { useCart } from '../context/CartContext';
 import { useAuth } from '../context/AuthContext';
 import { useNavigate } from 'react-router-dom';
@@ -7,6 +7,9 @@ import DeleteIcon from '@mui/icons-material/Delete';
 import axios from 'axios';
 import { API_ENDPOINTS } from '../api/config';
 
+const ORDER_STATUS_POLL_MS = 500;
+const ORDER_STATUS_TIMEOUT_MS = 15000;
+
 export default function Cart() {
   const { items, updateQuantity, removeFromCart, clearCart } = useCart();
   const { isAuthenticated, token } = useAuth();
@@ -15,6 +18,8 @@ export default function Cart() {
   const [success, setSuccess] = useState(false);
   const [error, setError] = useState(null);
   const [snackbar, setSnackbar] = useState({ open: false, message: '', severity: 'success' });
+  // Reused until a checkout succeeds, so retrying after a timeout can't place the order twice
+  const checkoutKey = useRef(null);
 
   // Redirect to login if not authenticated
   React.useEffect(() => {
@@ -38,6 +43,19 @@ export default function Cart() {
 
   const total = items.reduce((sum, i) => sum + i.product.price * i.quantity, 0);
 
+  // The order is only accepted at this point; stock is reserved asynchronously, so wait for the outcome
+  const awaitOrderOutcome = async (orderId) => {
+    const deadline = Date.now() + ORDER_STATUS_TIMEOUT_MS;
+    while (Date.now() < deadline) {
+      const { data } = await axios.get(`${API_ENDPOINTS.ORDERS}/${orderId}/status`, {
+        headers: { Authorization: `Bearer ${token}` }
+      });
+      if (data.status !== 'ACCEPTED' && data.status !== 'RESERVED') return data.status;
+      await new Promise(resolve => setTimeout(resolve, ORDER_STATUS_POLL_MS));
+    }
+    return 'PENDING';
+  };
+
   const handleCheckout = async () => {
     if (!isAuthenticated) {
       navigate('/login');
@@ -46,13 +64,30 @@ export default function Cart() {
     setLoading(true);
     setError(null);
     try {
-      const userId = JSON.parse(atob(token.split('.')[1])).sub || 1;
-      await axios.post(`${API_ENDPOINTS.ORDERS}/place/${userId}`, {}, {
-        headers: { Authorization: `Bearer ${token}` }
+      const claims = JSON.parse(atob(token.split('.')[1]));
+      const userId = claims.uid ?? claims.sub;
+      if (!checkoutKey.current) checkoutKey.current = crypto.randomUUID();
+      const { data: order } = await axios.post(`${API_ENDPOINTS.ORDERS}/place/${userId}`, {}, {
+        headers: { Authorization: `Bearer ${token}`, 'Idempotency-Key': checkoutKey.current }
       });
-      setSuccess(true);
-      clearCart();
-      setSnackbar({ open: true, message: 'Order placed successfully!', severity: 'success' });
+      const status = await awaitOrderOutcome(order.orderId);
+      if (status === 'PLACED') {
+        checkoutKey.current = null;
+        setSuccess(true);
+        clearCart();
+        setSnackbar({ open: true, message: 'Order placed successfully!', severity: 'success' });
+      } else if (status === 'PENDING') {
+        // Keeping the key means checking out again returns this same order rather than a second one
+        setSnackbar({ open: true, message: 'Your order is still being processed. Check your orders shortly.', severity: 'info' });
+      } else {
+        // Rejected or failed: nothing was charged and the items are still in the cart
+        checkoutKey.current = null;
+        const message = status === 'REJECTED'
+          ? 'Some items are no longer in stock. Your order was not placed.'
+          : 'Your order could not be completed. Please try again.';
+        setError(message);
+        setSnackbar({ open: true, message, severity: 'error' });
+      }
     } catch (err) {
       setError('Checkout failed');
       setSnackbar({ open: true, message: 'Checkout failed', severity: 'error' });
@@ -62,7 +62,7 @@ export default function Orders() {
                   <Typography variant="subtitle2" mt={2}>Items:</Typography>
                   {order.items && order.items.map(item => (
                     <Typography key={item.orderItemId} variant="body2">
-                      {item.product.name} x {item.quantity} (₹{item.price} each)
+                      {item.productName} x {item.quantity} (₹{item.price} each)
                     </Typography>
                   ))}
                 </CardContent>
@@ -4,6 +4,7 @@ import axios from 'axios';
 import { Box, Typography, Card, CardContent, CardMedia, CircularProgress, Button, IconButton } from '@mui/material';
 import CloseIcon from '@mui/icons-material/Close';
 import { useCart } from '../context/CartContext';
+import { resolveImageUrl } from '../api/config';
 
 export default function ProductDetails() {
   const { id } = useParams();
@@ -68,7 +69,7 @@ export default function ProductDetails() {
         <CardMedia
           component="img"
           height="240"
-          image={product.imageUrl || "https://source.unsplash.com/featured/?product"}
+          image={resolveImageUrl(product.mediumImageUrl || product.imageUrl) || "https://source.unsplash.com/featured/?product"}
           alt={product.name}
         />
         <CardContent>
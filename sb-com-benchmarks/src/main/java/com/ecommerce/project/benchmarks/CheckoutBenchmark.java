@@ -0,0 +1,176 @@
+package com.ecommerce.project.benchmarks;
+
+import com.ecommerce.project.SbComApplication;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.repositories.UserRepository;
+import com.ecommerce.project.service.CartService;
+import com.ecommerce.project.service.CheckoutPipeline;
+import com.ecommerce.project.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cart mutation and checkout through the real services, transactions and repositories against an in-memory
+// H2 database. Each benchmark thread shops as its own user; run with -t to add contention.
+// placeOrder measures the whole checkout: accepting the order and then the pipeline stages (stock
+// reservation, ACCEPTED -> RESERVED -> PLACED), which are run on the calling thread instead of the
+// checkout executor so no earlier order's pipeline work overlaps the measurement.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    private static final int PRODUCTS = 200;
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        ConfigurableApplicationContext context;
+        CartService cartService;
+        OrderService orderService;
+        UserRepository userRepository;
+        List<Long> productIds = new ArrayList<>();
+        // Pipeline stages submitted by the current thread's checkout, run by the benchmark itself
+        final ThreadLocal<List<Runnable>> deferred = ThreadLocal.withInitial(ArrayList::new);
+
+        @Setup(Level.Trial)
+        public void start() {
+            // Command-line arguments, so they override application.properties
+            context = new SpringApplicationBuilder(SbComApplication.class).run(
+                    "--server.port=0",
+                    "--spring.datasource.url=jdbc:h2:mem:jmh-checkout",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.h2.console.enabled=false",
+                    "--app.rate-limit.enabled=false",
+                    "--logging.level.root=WARN");
+            cartService = context.getBean(CartService.class);
+            orderService = context.getBean(OrderService.class);
+            userRepository = context.getBean(UserRepository.class);
+            // Submitted after the accepting transaction commits, on the thread that placed the order
+            Fields.set(context.getBean(CheckoutPipeline.class), "checkoutExecutor",
+                    (Executor) task -> deferred.get().add(task));
+            List<Product> catalog = new ArrayList<>(PRODUCTS);
+            for (int i = 0; i < PRODUCTS; i++) {
+                Product product = new Product();
+                product.setName("Benchmark product " + i);
+                product.setPrice(10 + i);
+                // Enough stock that the checkout pipeline never runs out during a run
+                product.setStock(1_000_000_000);
+                catalog.add(product);
+            }
+            for (Product product : context.getBean(ProductRepository.class).saveAll(catalog)) {
+                productIds.add(product.getProductId());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        Long newCustomer() {
+            User user = new User();
+            user.setUsername("jmh-" + System.nanoTime());
+            user.setEmail(user.getUsername() + "@example.com");
+            user.setPassword("not-a-real-hash");
+            user.setRole(User.Role.CUSTOMER);
+            return userRepository.save(user).getUserId();
+        }
+
+        Long randomProduct() {
+            return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+        }
+
+        // Distinct, so every order has exactly count lines
+        List<Long> randomProducts(int count) {
+            return ThreadLocalRandom.current().ints(0, productIds.size())
+                    .distinct()
+                    .limit(count)
+                    .mapToObj(productIds::get)
+                    .toList();
+        }
+
+        void runDeferred() {
+            List<Runnable> tasks = deferred.get();
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        // Distinct products per order, so placeOrder reports latency per cart size
+        @Param({"1", "5", "20", "50"})
+        int itemsPerOrder;
+
+        Long userId;
+
+        @Setup(Level.Trial)
+        public void register(Application app) {
+            userId = app.newCustomer();
+        }
+
+        // placeOrder empties the cart, so each invocation starts from a freshly filled one
+        @Setup(Level.Invocation)
+        public void fillCart(Application app) {
+            for (Long productId : app.randomProducts(itemsPerOrder)) {
+                app.cartService.addItemToCart(userId, productId, 1);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Browser {
+        Long userId;
+
+        @Setup(Level.Trial)
+        public void register(Application app) {
+            userId = app.newCustomer();
+        }
+    }
+
+    // Add then remove, so the cart stays the same size across iterations
+    @Benchmark
+    public Cart cartAddRemove(Application app, Browser browser) {
+        Long productId = app.randomProduct();
+        app.cartService.addItemToCart(browser.userId, productId, 1);
+        return app.cartService.removeItemFromCart(browser.userId, productId);
+    }
+
+    @Benchmark
+    public Cart cartRead(Application app, Browser browser) {
+        return app.cartService.getCartByUserId(browser.userId);
+    }
+
+    // Returns once the order is PLACED (or rejected), not just accepted
+    @Benchmark
+    public Order.Status placeOrder(Application app, Shopper shopper) {
+        Order order = app.orderService.placeOrder(shopper.userId);
+        app.runDeferred();
+        return app.orderService.getOrderStatus(order.getOrderId());
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.project.benchmarks;
+
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.security.AuthenticatedUser;
+import com.ecommerce.project.security.JwtUtil;
+import com.ecommerce.project.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-request token cost: issuing, a full signature-verifying parse, validateToken, and the verified-token
+// cache lookup that repeat requests take instead of parsing
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        user = new User();
+        user.setUserId(42L);
+        user.setUsername("benchmark-user");
+        user.setRole(User.Role.CUSTOMER);
+        token = jwtUtil.generateToken(user);
+
+        tokenCache = new VerifiedTokenCache();
+        Fields.set(tokenCache, "maxSize", 100_000L);
+        Fields.set(tokenCache, "maxTtl", Duration.ofMinutes(5));
+        tokenCache.init();
+        tokenCache.put(token, new VerifiedTokenCache.VerifiedToken(AuthenticatedUser.of(user),
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())),
+                jwtUtil.parseVerified(token).getExpiration().getTime()));
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parse() {
+        return jwtUtil.parseVerified(token);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public VerifiedTokenCache.VerifiedToken cachedLookup() {
+        return tokenCache.get(token);
+    }
+}
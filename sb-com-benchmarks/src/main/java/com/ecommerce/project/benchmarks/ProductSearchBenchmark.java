@@ -0,0 +1,96 @@
+package com.ecommerce.project.benchmarks;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The in-memory product search that answers /api/products/search, over a generated catalog: a whole-word
+// query, a short prefix that expands to many terms, a two-term intersection, and reindexing one product
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ru", "sa", "ti", "vo", "ze", "pa",
+            "do", "gi", "be", "fu", "ha", "jo"};
+    private static final int VOCABULARY = 4_000;
+
+    @Param({"10000", "100000"})
+    private int products;
+
+    private ProductSearchIndex index;
+    private List<String> words;
+    private Product updated;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        words = new ArrayList<>(VOCABULARY);
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int n = i; word.length() < 6 || n > 0; n /= SYLLABLES.length) {
+                word.append(SYLLABLES[n % SYLLABLES.length]);
+            }
+            words.add(word.toString());
+        }
+        List<Product> catalog = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            catalog.add(product(id, random));
+        }
+        index = new ProductSearchIndex();
+        index.rebuild(catalog);
+        updated = product(products / 2, random);
+    }
+
+    // Word frequency is skewed towards the start of the vocabulary, as in real catalogs
+    private Product product(long id, Random random) {
+        return new Product(id, phrase(random, 3), phrase(random, 12), 10 + random.nextInt(990), 100, null);
+    }
+
+    private String phrase(Random random, int length) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            double skewed = Math.pow(random.nextDouble(), 3);
+            phrase.append(words.get((int) (skewed * words.size()))).append(' ');
+        }
+        return phrase.toString().trim();
+    }
+
+    @Benchmark
+    public List<Product> wholeWord() {
+        return index.search(words.get(100));
+    }
+
+    @Benchmark
+    public List<Product> prefix() {
+        return index.search(words.get(10).substring(0, 3));
+    }
+
+    @Benchmark
+    public List<Product> twoTerms() {
+        return index.search(words.get(3) + " " + words.get(40));
+    }
+
+    @Benchmark
+    public void reindex() {
+        index.index(updated);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.project.benchmarks;
+
+import com.ecommerce.project.service.SimpleCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// SimpleCacheService (the spring.cache.type=simple store) read and write paths under contention: uniform
+// random keys over a cache that holds them all, so reads hit and writes replace
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleCacheServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int keys;
+
+    private SimpleCacheService cache;
+    private String[] keyNames;
+    private Object value;
+
+    @Setup
+    public void setUp() {
+        cache = new SimpleCacheService();
+        Fields.set(cache, "maxWeight", (long) keys);
+        Fields.set(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+        keyNames = new String[keys];
+        value = "cached value";
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "product:" + i;
+            cache.set(keyNames[i], value, 1, TimeUnit.HOURS);
+        }
+    }
+
+    private String randomKey() {
+        return keyNames[ThreadLocalRandom.current().nextInt(keys)];
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object get() {
+        return cache.get(randomKey());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void set() {
+        cache.set(randomKey(), value, 1, TimeUnit.HOURS);
+    }
+
+    // Read-mostly mix: three readers racing one writer
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(3)
+    public Object readMostlyGet() {
+        return cache.get(randomKey());
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public void readMostlySet() {
+        cache.set(randomKey(), value, 1, TimeUnit.HOURS);
+    }
+}
@@ -0,0 +1,60 @@
+-- Schema changes for existing PostgreSQL databases.
+--
+-- The production profile runs with spring.jpa.hibernate.ddl-auto=validate and the project has no
+-- migration tool, so these statements have to be applied by hand before deploying a build that needs
+-- them. Every statement is safe to re-run. Fresh databases created by ddl-auto=create/update don't
+-- need any of this.
+--
+--   psql -h your-db-host -U your-username -d shopaura -f sb-com/db/postgresql-upgrade.sql
+
+-- Orders, order items and cart items take their ids from pooled sequences (allocationSize 50) so
+-- inserts can be batched. Each sequence must step by 50 and start above the ids already in use.
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS cart_items_seq INCREMENT BY 50;
+SELECT setval('orders_seq', GREATEST(nextval('orders_seq'), (SELECT COALESCE(MAX(order_id), 0) FROM orders) + 50));
+SELECT setval('order_items_seq', GREATEST(nextval('order_items_seq'), (SELECT COALESCE(MAX(order_item_id), 0) FROM order_items) + 50));
+SELECT setval('cart_items_seq', GREATEST(nextval('cart_items_seq'), (SELECT COALESCE(MAX(cart_item_id), 0) FROM cart_items) + 50));
+
+-- Asynchronous image uploads: PENDING while the upload runs, then READY or FAILED. Products that never
+-- had an upload keep NULL.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS image_status VARCHAR(255);
+DO $$
+BEGIN
+    ALTER TABLE products ADD CONSTRAINT products_image_status_check
+        CHECK (image_status IN ('PENDING', 'READY', 'FAILED'));
+EXCEPTION WHEN duplicate_object THEN NULL;
+END $$;
+
+-- Generated image variants: thumbnail and medium renditions next to the original image_url.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS thumbnail_url VARCHAR(255);
+ALTER TABLE products ADD COLUMN IF NOT EXISTS medium_image_url VARCHAR(255);
+
+-- Token revocation: tokens issued before a user's last password change are rejected.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS password_changed_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- Signup conflicts are told apart by constraint name, so the unique constraints on users need the names
+-- the entity declares. Databases created before that carry Hibernate-generated names (uk_...); rename
+-- them, or add the constraint if the column has none.
+DO $$
+DECLARE
+    spec RECORD;
+    existing TEXT;
+BEGIN
+    FOR spec IN SELECT * FROM (VALUES ('username', 'uk_users_username'), ('email', 'uk_users_email')) AS s(col, name)
+    LOOP
+        SELECT con.conname INTO existing
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1]
+        WHERE con.conrelid = 'users'::regclass
+          AND con.contype = 'u'
+          AND cardinality(con.conkey) = 1
+          AND att.attname = spec.col
+        LIMIT 1;
+        IF existing IS NULL THEN
+            EXECUTE format('ALTER TABLE users ADD CONSTRAINT %I UNIQUE (%I)', spec.name, spec.col);
+        ELSIF existing <> spec.name THEN
+            EXECUTE format('ALTER TABLE users RENAME CONSTRAINT %I TO %I', existing, spec.name);
+        END IF;
+    END LOOP;
+END $$;
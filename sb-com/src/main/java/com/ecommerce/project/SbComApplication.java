@@ -4,10 +4,14 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.repositories.CategoryRepository;
 import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.service.CatalogStatsAggregator;
+import com.ecommerce.project.service.ProductSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -20,6 +24,7 @@ import java.util.Optional;
 
 
 @SpringBootApplication
+@EnableScheduling
 public class SbComApplication {
 
 	public static void main(String[] args) {
@@ -35,7 +40,9 @@ public class SbComApplication {
 		}
 	}
    
+	// Runner order is otherwise unspecified; products are seeded against these categories
 	@Bean
+	@Order(1)
 	public CommandLineRunner initCategories(CategoryRepository categoryRepository) {
 		return args -> {
 			try {
@@ -64,7 +71,9 @@ public class SbComApplication {
 	}
 
 	@Bean
-	public CommandLineRunner initFeaturedProducts(CategoryRepository categoryRepository, ProductRepository productRepository) {
+	@Order(2)
+	public CommandLineRunner initFeaturedProducts(CategoryRepository categoryRepository, ProductRepository productRepository,
+												  ProductSearchIndex productSearchIndex, CatalogStatsAggregator catalogStatsAggregator) {
 		return args -> {
 			try {
 				// Clear existing products and always seed
@@ -166,6 +175,10 @@ public class SbComApplication {
 			} catch (Exception e) {
 				System.out.println("Error initializing featured products: " + e.getMessage());
 			}
+
+			// Build the search index and catalog stats from whatever ended up in the catalog
+			productSearchIndex.rebuild(productRepository.findAll());
+			catalogStatsAggregator.reconcile();
 		};
 	}
 }
@@ -0,0 +1,58 @@
+package com.ecommerce.project.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class AsyncConfig {
+
+    // Checkout stages after acceptance. They spend their time waiting on the database, so a virtual
+    // thread per order is cheap; the connection pool is what actually bounds concurrency.
+    @Bean(destroyMethod = "close")
+    public ExecutorService checkoutExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Image uploads hold a staged file and an outbound connection each, so both the number of concurrent
+    // uploads and the backlog are capped; submissions beyond the queue are rejected rather than buffered
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService imageUploadExecutor(
+            @Value("${app.images.upload.threads:4}") int threads,
+            @Value("${app.images.upload.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // BCrypt is pure CPU; by default half the cores may hash at once, leaving the rest for other traffic.
+    // The queue is short on purpose: PasswordHashingService turns a full queue into an immediate 503.
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(
+            @Value("${app.security.hashing.threads:0}") int threads,
+            @Value("${app.security.hashing.queue-capacity:32}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
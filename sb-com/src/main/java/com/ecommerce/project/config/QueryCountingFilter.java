@@ -0,0 +1,76 @@
+package com.ecommerce.project.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records how many SQL statements each request ran, per endpoint, as http.server.requests.queries.
+// Statements are counted by Inspector on the request thread; work handed to other threads (the checkout
+// pipeline, async request processing) is not attributed to the request.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryCountingFilter extends OncePerRequestFilter {
+
+    private static final ThreadLocal<int[]> QUERIES = new ThreadLocal<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int[] queries = new int[1];
+        QUERIES.set(queries);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QUERIES.remove();
+        }
+        // The rest of an async request runs elsewhere, so its count would be partial
+        if (!request.isAsyncStarted()) {
+            summary(request.getMethod(), uri(request)).record(queries[0]);
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        return summaries.computeIfAbsent(method + ' ' + uri, key -> DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements executed per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+
+    // Registered with Hibernate by MetricsConfig and called for every statement it prepares
+    public static class Inspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            int[] queries = QUERIES.get();
+            if (queries != null) {
+                queries[0]++;
+            }
+            return sql;
+        }
+    }
+}
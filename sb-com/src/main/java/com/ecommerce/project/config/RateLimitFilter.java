@@ -0,0 +1,107 @@
+package com.ecommerce.project.config;
+
+import com.ecommerce.project.security.AuthenticatedUser;
+import com.ecommerce.project.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Per-client token buckets on the routes configured under app.rate-limit.routes. Runs in the security
+// chain after JwtAuthenticationFilter, so signed-in clients are limited per user and anonymous ones per
+// address. Requests over the limit get 429 with Retry-After; unconfigured routes pass straight through.
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record CompiledRoute(String id, PathPattern pattern, Set<String> methods, RateLimiter.Limit limit) {
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+    }
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    private final List<CompiledRoute> routes = new ArrayList<>();
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties) {
+        for (int i = 0; i < properties.getRoutes().size(); i++) {
+            RateLimitProperties.Route route = properties.getRoutes().get(i);
+            if (route.getCapacity() <= 0 || route.getRefillPerSecond() <= 0) {
+                throw new IllegalStateException("app.rate-limit.routes[" + i + "] needs a positive capacity and refill-per-second");
+            }
+            Set<String> methods = route.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            routes.add(new CompiledRoute("r" + i, PathPatternParser.defaultInstance.parse(route.getPattern()), methods,
+                    RateLimiter.Limit.of(route.getCapacity(), route.getRefillPerSecond())));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CompiledRoute route = match(request);
+        if (route != null) {
+            long waitNanos = rateLimiter.tryAcquire(route.id() + ":" + clientKey(request), route.limit());
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private CompiledRoute match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (CompiledRoute route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "u" + user.userId();
+        }
+        // Behind a proxy this is the proxy unless server.forward-headers-strategy is set
+        return "a" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\",\"status\":\"429\"}");
+    }
+}
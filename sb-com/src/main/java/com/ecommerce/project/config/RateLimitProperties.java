@@ -0,0 +1,52 @@
+package com.ecommerce.project.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// app.rate-limit.*: token buckets per client for the routes listed; other routes are not limited
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // local: per-node buckets in memory; redis: buckets shared by all nodes (needs spring.cache.type=redis)
+    private String store = "local";
+    // Upper bound on buckets kept in memory by the local store
+    private long maxKeys = 100_000;
+    // Redis store: while Redis is unreachable, how long to use local buckets before trying it again
+    private Duration redisRetryInterval = Duration.ofSeconds(10);
+    private List<Route> routes = new ArrayList<>();
+
+    public static class Route {
+        // Spring path pattern, e.g. /api/orders/place/**
+        private String pattern;
+        // Empty means every method
+        private List<String> methods = new ArrayList<>();
+        // Burst size: requests allowed at once from a full bucket
+        private int capacity;
+        // Sustained rate: tokens added back per second
+        private double refillPerSecond;
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public double getRefillPerSecond() { return refillPerSecond; }
+        public void setRefillPerSecond(double refillPerSecond) { this.refillPerSecond = refillPerSecond; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getStore() { return store; }
+    public void setStore(String store) { this.store = store; }
+    public long getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(long maxKeys) { this.maxKeys = maxKeys; }
+    public Duration getRedisRetryInterval() { return redisRetryInterval; }
+    public void setRedisRetryInterval(Duration redisRetryInterval) { this.redisRetryInterval = redisRetryInterval; }
+    public List<Route> getRoutes() { return routes; }
+    public void setRoutes(List<Route> routes) { this.routes = routes; }
+}
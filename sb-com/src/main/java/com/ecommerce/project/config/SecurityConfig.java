@@ -2,6 +2,8 @@ package com.ecommerce.project.config;
 
 import com.ecommerce.project.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,9 +16,12 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired(required = false)
+    private RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -37,23 +42,34 @@ public class SecurityConfig {
                     "/api/products/paginated",
                     "/api/products/search",
                     "/api/products/price-range",
+                    "/api/products/price-range/scroll",
                     "/api/products/stats",
+                    "/api/images/*",
+                    "/api/images/variants/*",
                     "/api/public/categories",
                     "/api/public/categories/*",
                     "/api/cache/stats",
                     "/api/cache/health",
                     "/api/cache/info",
-                    "/actuator/**"
+                    // Only liveness/readiness and build info are public; metrics and prometheus need a token
+                    "/actuator/health/**",
+                    "/actuator/info"
                 ).permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // After authentication, so limits can be keyed by user
+        if (rateLimitFilter != null) {
+            http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
+        }
         return http.build();
     }
 
+    // The one encoder in the app. Raising the strength is picked up on each user's next login,
+    // when their hash is transparently re-encoded
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
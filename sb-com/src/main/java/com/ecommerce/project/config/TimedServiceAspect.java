@@ -0,0 +1,30 @@
+package com.ecommerce.project.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Micrometer's TimedAspect for @Timed methods, ordered ahead of the transaction advice so a timed
+// @Transactional method includes its flush and commit. Registered as a bean on its own, TimedAspect
+// shares the lowest precedence with the transaction advice and may end up inside it.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TimedServiceAspect {
+
+    private final TimedAspect timedAspect;
+
+    public TimedServiceAspect(MeterRegistry meterRegistry) {
+        this.timedAspect = new TimedAspect(meterRegistry);
+    }
+
+    @Around("execution(* com.ecommerce.project..*(..)) && @annotation(io.micrometer.core.annotation.Timed)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timedAspect.timedMethod(joinPoint);
+    }
+}
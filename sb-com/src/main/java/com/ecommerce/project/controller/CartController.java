@@ -1,6 +1,6 @@
 package com.ecommerce.project.controller;
 
-import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.dto.CartView;
 import com.ecommerce.project.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -14,23 +14,23 @@ public class CartController {
     private CartService cartService;
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Cart> getCart(@PathVariable Long userId) {
-        return ResponseEntity.ok(cartService.getCartByUserId(userId));
+    public ResponseEntity<CartView> getCart(@PathVariable Long userId) {
+        return ResponseEntity.ok(CartView.from(cartService.getCartByUserId(userId)));
     }
 
     @PostMapping("/{userId}/add")
-    public ResponseEntity<Cart> addItemToCart(@PathVariable Long userId, @RequestParam Long productId, @RequestParam int quantity) {
-        return new ResponseEntity<>(cartService.addItemToCart(userId, productId, quantity), HttpStatus.CREATED);
+    public ResponseEntity<CartView> addItemToCart(@PathVariable Long userId, @RequestParam Long productId, @RequestParam int quantity) {
+        return new ResponseEntity<>(CartView.from(cartService.addItemToCart(userId, productId, quantity)), HttpStatus.CREATED);
     }
 
     @PutMapping("/{userId}/update")
-    public ResponseEntity<Cart> updateItemQuantity(@PathVariable Long userId, @RequestParam Long productId, @RequestParam int quantity) {
-        return ResponseEntity.ok(cartService.updateItemQuantity(userId, productId, quantity));
+    public ResponseEntity<CartView> updateItemQuantity(@PathVariable Long userId, @RequestParam Long productId, @RequestParam int quantity) {
+        return ResponseEntity.ok(CartView.from(cartService.updateItemQuantity(userId, productId, quantity)));
     }
 
     @DeleteMapping("/{userId}/remove")
-    public ResponseEntity<Cart> removeItemFromCart(@PathVariable Long userId, @RequestParam Long productId) {
-        return ResponseEntity.ok(cartService.removeItemFromCart(userId, productId));
+    public ResponseEntity<CartView> removeItemFromCart(@PathVariable Long userId, @RequestParam Long productId) {
+        return ResponseEntity.ok(CartView.from(cartService.removeItemFromCart(userId, productId)));
     }
 
     @DeleteMapping("/{userId}/clear")
@@ -18,7 +18,7 @@ public class GlobalExceptionHandler {
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getReason());
         error.put("status", String.valueOf(ex.getStatusCode().value()));
-        return new ResponseEntity<>(error, ex.getStatusCode());
+        return new ResponseEntity<>(error, ex.getHeaders(), ex.getStatusCode());
     }
 
     @ExceptionHandler(Exception.class)
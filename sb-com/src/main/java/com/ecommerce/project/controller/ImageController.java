@@ -0,0 +1,36 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.service.LocalImageStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Serves images kept by LocalImageStorage; with Cloudinary storage images are served by the CDN
+@RestController
+@RequestMapping("/api/images")
+@ConditionalOnProperty(name = "app.images.storage", havingValue = "local")
+public class ImageController {
+
+    @Autowired
+    private LocalImageStorage localImageStorage;
+
+    @GetMapping("/{name}")
+    public ResponseEntity<Resource> getImage(@PathVariable String name) {
+        return localImageStorage.resolve(name)
+                .map(path -> {
+                    Resource resource = new FileSystemResource(path);
+                    MediaType mediaType = MediaTypeFactory.getMediaType(resource)
+                            .orElse(MediaType.APPLICATION_OCTET_STREAM);
+                    return ResponseEntity.ok().contentType(mediaType).body(resource);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
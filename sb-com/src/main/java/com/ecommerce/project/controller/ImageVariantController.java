@@ -0,0 +1,60 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.service.ImageVariantStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/images/variants")
+public class ImageVariantController {
+
+    // Variant names are content hashes, so a URL's bytes never change
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    @Autowired
+    private ImageVariantStore imageVariantStore;
+
+    @GetMapping("/{name}")
+    public ResponseEntity<StreamingResponseBody> getVariant(
+            @PathVariable String name,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<ByteBuffer> variant = imageVariantStore.get(name);
+        if (variant.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ImageVariantStore.etagOf(name);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(IMMUTABLE).build();
+        }
+        ByteBuffer buffer = variant.get();
+        // Written straight from the mapped file, without copying it onto the heap first
+        StreamingResponseBody body = out -> {
+            WritableByteChannel channel = Channels.newChannel(out);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .contentLength(buffer.remaining())
+                .eTag(etag)
+                .cacheControl(IMMUTABLE)
+                .body(body);
+    }
+}
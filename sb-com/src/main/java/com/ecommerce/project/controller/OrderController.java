@@ -1,5 +1,6 @@
 package com.ecommerce.project.controller;
 
+import com.ecommerce.project.dto.OrderView;
 import com.ecommerce.project.model.Order;
 import com.ecommerce.project.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,7 +8,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -16,17 +19,31 @@ public class OrderController {
     private OrderService orderService;
 
     @PostMapping("/place/{userId}")
-    public ResponseEntity<Order> placeOrder(@PathVariable Long userId) {
-        return new ResponseEntity<>(orderService.placeOrder(userId), HttpStatus.CREATED);
+    public ResponseEntity<OrderView> placeOrder(@PathVariable Long userId,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        // Retries carrying the same key get the original order back instead of a new one
+        Order order = idempotencyKey != null
+                ? orderService.placeOrder(userId, idempotencyKey)
+                : orderService.placeOrder(userId);
+        // 202: the order is persisted, stock reservation and placement finish asynchronously
+        return new ResponseEntity<>(OrderView.from(order), HttpStatus.ACCEPTED);
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(orderService.getOrdersByUser(userId));
+    public ResponseEntity<List<OrderView>> getOrdersByUser(@PathVariable Long userId) {
+        return ResponseEntity.ok(OrderView.fromAll(orderService.getOrdersByUser(userId)));
+    }
+
+    @GetMapping("/{orderId}/status")
+    public ResponseEntity<Map<String, Object>> getOrderStatus(@PathVariable Long orderId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("orderId", orderId);
+        response.put("status", orderService.getOrderStatus(orderId));
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{orderId}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long orderId) {
-        return ResponseEntity.ok(orderService.getOrderById(orderId));
+    public ResponseEntity<OrderView> getOrderById(@PathVariable Long orderId) {
+        return ResponseEntity.ok(OrderView.from(orderService.getOrderById(orderId)));
     }
 } 
\ No newline at end of file
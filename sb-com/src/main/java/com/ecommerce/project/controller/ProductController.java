@@ -1,20 +1,29 @@
 package com.ecommerce.project.controller;
 
+import com.ecommerce.project.dto.CursorPage;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import com.ecommerce.project.model.User;
 import com.ecommerce.project.service.UserService;
-import com.ecommerce.project.security.JwtUtil;
+import com.ecommerce.project.security.AuthenticatedUser;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.multipart.MultipartFile;
 import com.ecommerce.project.service.ImageUploadService;
+import com.ecommerce.project.service.CatalogStatsAggregator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -28,12 +37,48 @@ public class ProductController {
     private UserService userService;
     @Autowired
     private ImageUploadService imageUploadService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private CatalogStatsAggregator catalogStatsAggregator;
 
     @GetMapping
     public ResponseEntity<List<Product>> getAllProducts() {
         return ResponseEntity.ok(productService.getAllProducts());
     }
 
+    // Writes the catalog as it is read from a database cursor, as a JSON array or NDJSON (format=ndjson)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "json") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"json".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter sequence = ndjson
+                    ? writer.withRootValueSeparator("\n").writeValues(outputStream)
+                    : writer.writeValuesAsArray(outputStream)) {
+                productService.streamAllProducts(product -> {
+                    try {
+                        sequence.write(product);
+                    } catch (java.io.IOException e) {
+                        throw new java.io.UncheckedIOException(e);
+                    }
+                });
+            }
+            if (ndjson) {
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @GetMapping("/paginated")
     public ResponseEntity<Page<Product>> getPaginatedProducts(
             @RequestParam(defaultValue = "0") int page,
@@ -45,6 +90,26 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllProducts(pageable));
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<Product>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        if (size <= 0 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsAfter(cursor, size, sort));
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<List<Product>> getProductsByIds(@RequestParam List<Long> ids) {
+        // An empty element (ids=1,,2) binds as null
+        if (ids.size() > 100 || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
         return ResponseEntity.ok(productService.getProductById(id));
@@ -55,6 +120,18 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
     }
 
+    @GetMapping("/category/{categoryId}/scroll")
+    public ResponseEntity<CursorPage<Product>> scrollProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        if (size <= 0 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByCategoryAfter(categoryId, cursor, size, sort));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Product>> searchProducts(@RequestParam String q) {
         return ResponseEntity.ok(productService.searchProducts(q));
@@ -67,38 +144,48 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductsByPriceRange(minPrice, maxPrice));
     }
 
+    @GetMapping("/price-range/scroll")
+    public ResponseEntity<CursorPage<Product>> scrollProductsByPriceRange(
+            @RequestParam double minPrice,
+            @RequestParam double maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        if (size <= 0 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByPriceRangeAfter(minPrice, maxPrice, cursor, size, sort));
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getProductStats() {
-        List<Product> allProducts = productService.getAllProducts();
-        Map<String, Object> stats = new HashMap<>();
-        
-        stats.put("totalProducts", allProducts.size());
-        stats.put("totalCategories", allProducts.stream()
-                .map(p -> p.getCategory().getCategoryName())
-                .distinct()
-                .count());
-        stats.put("averagePrice", allProducts.stream()
-                .mapToDouble(Product::getPrice)
-                .average()
-                .orElse(0.0));
-        stats.put("totalStock", allProducts.stream()
-                .mapToInt(Product::getStock)
-                .sum());
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(catalogStatsAggregator.snapshot());
+    }
+
+    // Recounts the whole catalog, so only sellers may trigger it
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileProductStats(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!principal.isSeller()) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(catalogStatsAggregator.reconcile());
     }
 
     @PostMapping(consumes = {"multipart/form-data"})
     public ResponseEntity<Product> createProduct(
             @RequestPart("product") Product product,
             @RequestPart(value = "image", required = false) MultipartFile image,
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!principal.isSeller()) {
+            return ResponseEntity.status(403).build();
+        }
         try {
-            String username = com.ecommerce.project.security.JwtUtil.extractUsernameFromHeader(authHeader);
-            User user = userService.getByUsername(username).orElseThrow();
-            if (user.getRole() != User.Role.SELLER) {
-                return ResponseEntity.status(403).build();
-            }
             
             // Validate product data
             if (product.getName() == null || product.getName().trim().isEmpty()) {
@@ -111,16 +198,21 @@ public class ProductController {
                 return ResponseEntity.badRequest().build();
             }
             
-            product.setCreatedBy(user);
-            if (image != null && !image.isEmpty()) {
-                try {
-                    String imageUrl = imageUploadService.uploadFile(image);
-                    product.setImageUrl(imageUrl);
-                } catch (Exception e) {
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-                }
+            boolean hasImage = image != null && !image.isEmpty();
+            if (hasImage && (image.getContentType() == null || !image.getContentType().startsWith("image/"))) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            // The seller row is embedded in the response and the search index, so it's loaded in full here
+            product.setCreatedBy(userService.getById(principal.userId()).orElseThrow());
+            product.setImageUrl(null);
+            product.setImageStatus(hasImage ? Product.ImageStatus.PENDING : null);
+            Product savedProduct = productService.createProduct(product);
+            // The image is uploaded in the background; imageUrl is filled in once it's stored
+            if (hasImage) {
+                imageUploadService.uploadAsync(savedProduct.getProductId(), image);
             }
-            return new ResponseEntity<>(productService.createProduct(product), HttpStatus.CREATED);
+            return new ResponseEntity<>(savedProduct, HttpStatus.CREATED);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -132,13 +224,14 @@ public class ProductController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable Long id, @RequestHeader("Authorization") String authHeader) {
-        String username = com.ecommerce.project.security.JwtUtil.extractUsernameFromHeader(authHeader);
-        User user = userService.getByUsername(username).orElseThrow();
-        if (user.getRole() == User.Role.SELLER) {
+    public ResponseEntity<Void> deleteProduct(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (principal.isSeller()) {
             Product product = productService.getProductById(id);
             // Only allow sellers to delete their own products
-            if (product.getCreatedBy() != null && product.getCreatedBy().getUsername().equals(username)) {
+            if (product.getCreatedBy() != null && principal.userId().equals(product.getCreatedBy().getUserId())) {
                 productService.deleteProduct(id);
                 return ResponseEntity.noContent().build();
             } else {
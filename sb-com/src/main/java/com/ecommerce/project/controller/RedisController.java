@@ -1,5 +1,6 @@
 package com.ecommerce.project.controller;
 
+import com.ecommerce.project.service.ProductCache;
 import com.ecommerce.project.service.RedisService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -7,8 +8,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 @RestController
 @RequestMapping("/api/cache")
@@ -17,11 +18,14 @@ public class RedisController {
 
     @Autowired(required = false)
     private RedisService redisService;
+    @Autowired
+    private ProductCache productCache;
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getCacheStats() {
         try {
             Map<String, Object> stats = redisService.getCacheStats();
+            stats.put("product_near_cache", productCache.getStats());
             stats.put("message", "Cache statistics retrieved successfully");
             stats.put("timestamp", System.currentTimeMillis());
             return ResponseEntity.ok(stats);
@@ -79,7 +83,7 @@ public class RedisController {
     @DeleteMapping("/product/{productId}")
     public ResponseEntity<Map<String, String>> clearProductCache(@PathVariable String productId) {
         try {
-            redisService.invalidateProductCache(productId);
+            productCache.invalidate(Long.valueOf(productId));
             Map<String, String> response = new HashMap<>();
             response.put("message", "Product cache cleared for ID: " + productId);
             response.put("status", "success");
@@ -96,13 +100,10 @@ public class RedisController {
     public ResponseEntity<Map<String, String>> clearSearchCache() {
         try {
             // Clear all search cache keys
-            Set<String> searchKeys = redisService.getKeysByPattern("search:*");
-            for (String key : searchKeys) {
-                redisService.delete(key);
-            }
+            long removed = redisService.deleteKeysByPattern("search:*");
             
             Map<String, String> response = new HashMap<>();
-            response.put("message", "Search cache cleared - " + searchKeys.size() + " keys removed");
+            response.put("message", "Search cache cleared - " + removed + " keys removed");
             response.put("status", "success");
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -129,17 +130,21 @@ public class RedisController {
         }
     }
 
+    // Pages through matching keys with SCAN; pass next_cursor back until it is "0"
     @GetMapping("/keys")
-    public ResponseEntity<Map<String, Object>> getCacheKeys(@RequestParam(required = false) String pattern) {
+    public ResponseEntity<Map<String, Object>> getCacheKeys(
+            @RequestParam(required = false) String pattern,
+            @RequestParam(defaultValue = "0") String cursor,
+            @RequestParam(defaultValue = "100") int count) {
+        if (count <= 0 || count > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
             String searchPattern = pattern != null ? pattern : "*";
-            Set<String> keys = redisService.getKeysByPattern(searchPattern);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("keys", keys);
-            response.put("count", keys.size());
+            Map<String, Object> response = redisService.scanKeysPage(searchPattern, cursor, count);
+            response.put("count", ((List<?>) response.get("keys")).size());
             response.put("pattern", searchPattern);
-            response.put("status", "success");
+            response.put("status", response.containsKey("error") ? "error" : "success");
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -160,11 +165,11 @@ public class RedisController {
             info.putAll(stats);
             
             // Get key counts by type
-            info.put("product_keys", redisService.getKeysByPattern("product:*").size());
-            info.put("search_keys", redisService.getKeysByPattern("search:*").size());
-            info.put("session_keys", redisService.getKeysByPattern("session:*").size());
-            info.put("cart_keys", redisService.getKeysByPattern("cart:*").size());
-            info.put("category_keys", redisService.getKeysByPattern("category:*").size());
+            info.put("product_keys", redisService.countKeysByPattern("product:*"));
+            info.put("search_keys", redisService.countKeysByPattern("search:*"));
+            info.put("session_keys", redisService.countKeysByPattern("session:*"));
+            info.put("cart_keys", redisService.countKeysByPattern("cart:*"));
+            info.put("category_keys", redisService.countKeysByPattern("category:*"));
             
             info.put("status", "success");
             info.put("timestamp", System.currentTimeMillis());
@@ -0,0 +1,44 @@
+package com.ecommerce.project.dto;
+
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.Product;
+
+public class CartItemView {
+    private Long cartItemId;
+    private Long productId;
+    private String productName;
+    private String imageUrl;
+    private double price;
+    private int stock;
+    private int quantity;
+
+    public CartItemView() {}
+
+    public static CartItemView from(CartItem item) {
+        Product product = item.getProduct();
+        CartItemView view = new CartItemView();
+        view.cartItemId = item.getCartItemId();
+        view.productId = product.getProductId();
+        view.productName = product.getName();
+        view.imageUrl = product.getImageUrl();
+        view.price = product.getPrice();
+        view.stock = product.getStock();
+        view.quantity = item.getQuantity();
+        return view;
+    }
+
+    public Long getCartItemId() { return cartItemId; }
+    public void setCartItemId(Long cartItemId) { this.cartItemId = cartItemId; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public int getStock() { return stock; }
+    public void setStock(int stock) { this.stock = stock; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.project.dto;
+
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CartView {
+    private Long cartId;
+    private Long userId;
+    private List<CartItemView> items;
+    private double total;
+
+    public CartView() {}
+
+    public static CartView from(Cart cart) {
+        CartView view = new CartView();
+        view.cartId = cart.getCartId();
+        view.userId = cart.getUser() != null ? cart.getUser().getUserId() : null;
+        view.items = new ArrayList<>();
+        if (cart.getItems() != null) {
+            for (CartItem item : cart.getItems()) {
+                CartItemView itemView = CartItemView.from(item);
+                view.items.add(itemView);
+                view.total += itemView.getPrice() * itemView.getQuantity();
+            }
+        }
+        return view;
+    }
+
+    public Long getCartId() { return cartId; }
+    public void setCartId(Long cartId) { this.cartId = cartId; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public List<CartItemView> getItems() { return items; }
+    public void setItems(List<CartItemView> items) { this.items = items; }
+    public double getTotal() { return total; }
+    public void setTotal(double total) { this.total = total; }
+}
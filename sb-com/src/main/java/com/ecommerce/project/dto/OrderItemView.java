@@ -0,0 +1,40 @@
+package com.ecommerce.project.dto;
+
+import com.ecommerce.project.model.OrderItem;
+import com.ecommerce.project.model.Product;
+
+public class OrderItemView {
+    private Long orderItemId;
+    private Long productId;
+    private String productName;
+    private String imageUrl;
+    private int quantity;
+    private double price;
+
+    public OrderItemView() {}
+
+    public static OrderItemView from(OrderItem item) {
+        Product product = item.getProduct();
+        OrderItemView view = new OrderItemView();
+        view.orderItemId = item.getOrderItemId();
+        view.productId = product != null ? product.getProductId() : null;
+        view.productName = product != null ? product.getName() : null;
+        view.imageUrl = product != null ? product.getImageUrl() : null;
+        view.quantity = item.getQuantity();
+        view.price = item.getPrice();
+        return view;
+    }
+
+    public Long getOrderItemId() { return orderItemId; }
+    public void setOrderItemId(Long orderItemId) { this.orderItemId = orderItemId; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.project.dto;
+
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.OrderItem;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderView {
+    private Long orderId;
+    private Long userId;
+    private LocalDateTime orderDate;
+    private String status;
+    private double total;
+    private List<OrderItemView> items;
+
+    public OrderView() {}
+
+    public static OrderView from(Order order) {
+        OrderView view = new OrderView();
+        view.orderId = order.getOrderId();
+        view.userId = order.getUser() != null ? order.getUser().getUserId() : null;
+        view.orderDate = order.getOrderDate();
+        view.status = order.getStatus() != null ? order.getStatus().name() : null;
+        view.total = order.getTotal();
+        view.items = new ArrayList<>();
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                view.items.add(OrderItemView.from(item));
+            }
+        }
+        return view;
+    }
+
+    public static List<OrderView> fromAll(List<Order> orders) {
+        List<OrderView> views = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            views.add(from(order));
+        }
+        return views;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public double getTotal() { return total; }
+    public void setTotal(double total) { this.total = total; }
+    public List<OrderItemView> getItems() { return items; }
+    public void setItems(List<OrderItemView> items) { this.items = items; }
+}
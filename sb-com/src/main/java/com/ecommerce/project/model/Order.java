@@ -7,7 +7,9 @@ import java.util.List;
 @Entity(name = "orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids (allocated 50 at a time) let Hibernate batch the inserts; IDENTITY forces one round trip per row
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id")
+    @SequenceGenerator(name = "orders_id", sequenceName = "orders_seq", allocationSize = 50)
     private Long orderId;
 
     @ManyToOne
@@ -15,15 +17,21 @@ public class Order {
     private User user;
 
     private LocalDateTime orderDate;
-    private String status;
+    @Enumerated(EnumType.STRING)
+    private Status status;
     private double total;
 
+    // ACCEPTED -> RESERVED -> PLACED; REJECTED when stock runs out, FAILED on an unexpected error
+    public enum Status {
+        ACCEPTED, RESERVED, PLACED, REJECTED, FAILED
+    }
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items;
 
     public Order() {}
 
-    public Order(Long orderId, User user, LocalDateTime orderDate, String status, double total, List<OrderItem> items) {
+    public Order(Long orderId, User user, LocalDateTime orderDate, Status status, double total, List<OrderItem> items) {
         this.orderId = orderId;
         this.user = user;
         this.orderDate = orderDate;
@@ -38,8 +46,8 @@ public class Order {
     public void setUser(User user) { this.user = user; }
     public LocalDateTime getOrderDate() { return orderDate; }
     public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
     public double getTotal() { return total; }
     public void setTotal(double total) { this.total = total; }
     public List<OrderItem> getItems() { return items; }
@@ -14,6 +14,19 @@ public class Product {
     private int stock;
     @Column(name = "image_url")
     private String imageUrl;
+    // Downscaled variants generated on upload; null for images that were never uploaded here
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+    @Column(name = "medium_image_url")
+    private String mediumImageUrl;
+    // Set when an image is uploaded with the product; imageUrl is filled in once the upload finishes
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_status")
+    private ImageStatus imageStatus;
+
+    public enum ImageStatus {
+        PENDING, READY, FAILED
+    }
 
     @ManyToOne
     @JoinColumn(name = "category_id")
@@ -50,4 +63,10 @@ public class Product {
     public void setCreatedBy(User createdBy) { this.createdBy = createdBy; }
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+    public String getMediumImageUrl() { return mediumImageUrl; }
+    public void setMediumImageUrl(String mediumImageUrl) { this.mediumImageUrl = mediumImageUrl; }
+    public ImageStatus getImageStatus() { return imageStatus; }
+    public void setImageStatus(ImageStatus imageStatus) { this.imageStatus = imageStatus; }
 } 
\ No newline at end of file
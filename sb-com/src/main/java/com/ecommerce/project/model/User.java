@@ -1,20 +1,35 @@
 package com.ecommerce.project.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 @Entity(name = "users")
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+})
 public class User {
+    // Named so a violation can be told apart on signup
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long userId;
 
-    @Column(unique = true)
     private String username;
 
-    @Column(unique = true)
     private String email;
 
+    // Accepted on registration, never written back out (users are embedded in product responses)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
+    // Embedded in issued tokens; tokens carrying an older value are no longer accepted
+    @JsonIgnore
+    private Instant passwordChangedAt;
     private String panNumber;
     @Enumerated(EnumType.STRING)
     private Role role;
@@ -41,6 +56,8 @@ public class User {
     public void setEmail(String email) { this.email = email; }
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
+    public Instant getPasswordChangedAt() { return passwordChangedAt; }
+    public void setPasswordChangedAt(Instant passwordChangedAt) { this.passwordChangedAt = passwordChangedAt; }
     public Role getRole() { return role; }
     public void setRole(Role role) { this.role = role; }
     public String getPanNumber() { return panNumber; }
@@ -2,6 +2,13 @@ package com.ecommerce.project.repositories;
 
 import com.ecommerce.project.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-} 
\ No newline at end of file
+    // Bulk delete: one statement however many items the cart holds
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM cart_items ci WHERE ci.cart.cartId IN (SELECT c.cartId FROM carts c WHERE c.user.userId = :userId)")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
@@ -3,8 +3,16 @@ package com.ecommerce.project.repositories;
 import com.ecommerce.project.model.Cart;
 import com.ecommerce.project.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUser(User user);
-} 
\ No newline at end of file
+
+    // The whole cart graph (user, items, products and their eager associations) in one statement
+    @Query("SELECT c FROM carts c LEFT JOIN FETCH c.user LEFT JOIN FETCH c.items i " +
+           "LEFT JOIN FETCH i.product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy " +
+           "WHERE c.user.userId = :userId")
+    Optional<Cart> findWithItemsByUserId(@Param("userId") Long userId);
+}
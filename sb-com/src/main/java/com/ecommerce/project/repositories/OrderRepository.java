@@ -3,8 +3,36 @@ package com.ecommerce.project.repositories;
 import com.ecommerce.project.model.Order;
 import com.ecommerce.project.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findAllByUser(User user);
-} 
\ No newline at end of file
+
+    @Query("SELECT o.status FROM orders o WHERE o.orderId = :orderId")
+    Optional<Order.Status> findStatusById(@Param("orderId") Long orderId);
+
+    // Compare-and-set on status: 0 rows means another worker already moved the order on
+    @Modifying
+    @Query("UPDATE orders o SET o.status = :next WHERE o.orderId = :orderId AND o.status = :expected")
+    int transitionStatus(@Param("orderId") Long orderId, @Param("expected") Order.Status expected, @Param("next") Order.Status next);
+
+    @Query("SELECT o.orderId FROM orders o WHERE o.status IN :statuses AND o.orderDate < :before")
+    List<Long> findIdsByStatusInAndOrderDateBefore(@Param("statuses") Collection<Order.Status> statuses, @Param("before") LocalDateTime before);
+
+    // Orders with their items and products fetched together, newest first
+    @Query("SELECT o FROM orders o LEFT JOIN FETCH o.user LEFT JOIN FETCH o.items i " +
+           "LEFT JOIN FETCH i.product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy " +
+           "WHERE o.user.userId = :userId ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findAllWithItemsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT o FROM orders o LEFT JOIN FETCH o.user LEFT JOIN FETCH o.items i " +
+           "LEFT JOIN FETCH i.product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy " +
+           "WHERE o.orderId = :orderId")
+    Optional<Order> findWithItemsById(@Param("orderId") Long orderId);
+}
@@ -1,11 +1,18 @@
 package com.ecommerce.project.repositories;
 
 import com.ecommerce.project.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
@@ -17,4 +24,70 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     @Query("SELECT p FROM products p WHERE p.price BETWEEN :minPrice AND :maxPrice")
     List<Product> findByPriceRange(@Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice);
-} 
\ No newline at end of file
+
+    // Aggregates used to reconcile the running catalog statistics
+    @Query("SELECT c.categoryId, c.categoryName, COUNT(p), SUM(p.price), SUM(p.stock) FROM products p LEFT JOIN p.category c " +
+            "GROUP BY c.categoryId, c.categoryName")
+    List<Object[]> aggregateByCategory();
+
+    @Query("SELECT p.price, COUNT(p) FROM products p GROUP BY p.price")
+    List<Object[]> countByPrice();
+
+    // Cursor-backed read of the whole catalog; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM products p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy ORDER BY p.productId")
+    Stream<Product> streamAll();
+
+    // Conditional decrement: updates nothing (returns 0) when there isn't enough stock, so concurrent
+    // buyers can never drive stock below zero; the row lock is held only until the transaction ends
+    @Modifying
+    @Query("UPDATE products p SET p.stock = p.stock - :quantity WHERE p.productId = :productId AND p.stock >= :quantity")
+    int decrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE products p SET p.stock = p.stock + :quantity WHERE p.productId = :productId")
+    int incrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE products p SET p.imageUrl = :imageUrl, p.thumbnailUrl = :thumbnailUrl, " +
+           "p.mediumImageUrl = :mediumImageUrl, p.imageStatus = :imageStatus WHERE p.productId = :productId")
+    int updateImage(@Param("productId") Long productId, @Param("imageUrl") String imageUrl,
+                    @Param("thumbnailUrl") String thumbnailUrl, @Param("mediumImageUrl") String mediumImageUrl,
+                    @Param("imageStatus") Product.ImageStatus imageStatus);
+
+    // Batch lookup with the eager associations joined in, so resolving N products is one statement
+    @Query("SELECT p FROM products p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.createdBy WHERE p.productId IN :ids")
+    List<Product> findAllWithAssociationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset (seek) pagination: callers pass PageRequest.of(0, limit), so no OFFSET and no count query
+
+    @Query("SELECT p FROM products p WHERE p.productId > :afterId ORDER BY p.productId ASC")
+    List<Product> findNextById(@Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT p FROM products p WHERE p.price > :afterPrice OR (p.price = :afterPrice AND p.productId > :afterId) " +
+            "ORDER BY p.price ASC, p.productId ASC")
+    List<Product> findNextByPrice(@Param("afterPrice") double afterPrice, @Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT p FROM products p WHERE p.category.categoryId = :categoryId AND p.productId > :afterId ORDER BY p.productId ASC")
+    List<Product> findNextByCategoryId(@Param("categoryId") Long categoryId, @Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT p FROM products p WHERE p.category.categoryId = :categoryId " +
+            "AND (p.price > :afterPrice OR (p.price = :afterPrice AND p.productId > :afterId)) " +
+            "ORDER BY p.price ASC, p.productId ASC")
+    List<Product> findNextByCategoryIdOrderByPrice(@Param("categoryId") Long categoryId, @Param("afterPrice") double afterPrice,
+                                                    @Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT p FROM products p WHERE p.price BETWEEN :minPrice AND :maxPrice AND p.productId > :afterId ORDER BY p.productId ASC")
+    List<Product> findNextByPriceRange(@Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice,
+                                       @Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT p FROM products p WHERE p.price BETWEEN :minPrice AND :maxPrice " +
+            "AND (p.price > :afterPrice OR (p.price = :afterPrice AND p.productId > :afterId)) " +
+            "ORDER BY p.price ASC, p.productId ASC")
+    List<Product> findNextByPriceRangeOrderByPrice(@Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice,
+                                                   @Param("afterPrice") double afterPrice, @Param("afterId") long afterId,
+                                                   Pageable limit);
+}
@@ -2,8 +2,23 @@ package com.ecommerce.project.repositories;
 
 import com.ecommerce.project.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+    boolean existsByUsername(String username);
+    boolean existsByEmail(String email);
+    // Compare-and-set so a rehash can't overwrite a password changed in the meantime
+    @Modifying
+    @Transactional
+    @Query("UPDATE users u SET u.password = :newHash WHERE u.userId = :userId AND u.password = :oldHash")
+    int replacePasswordHash(@Param("userId") Long userId, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+    // Revocation checks for claims-based principals: whether the token's password stamp is still current
+    boolean existsByUserIdAndPasswordChangedAt(Long userId, Instant passwordChangedAt);
+    boolean existsByUserIdAndPasswordChangedAtIsNull(Long userId);
 } 
\ No newline at end of file
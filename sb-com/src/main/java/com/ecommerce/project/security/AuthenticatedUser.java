@@ -0,0 +1,15 @@
+package com.ecommerce.project.security;
+
+import com.ecommerce.project.model.User;
+
+// The request's principal, built from verified token claims; inject with @AuthenticationPrincipal
+public record AuthenticatedUser(Long userId, String username, User.Role role) {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getUserId(), user.getUsername(), user.getRole());
+    }
+
+    public boolean isSeller() {
+        return role == User.Role.SELLER;
+    }
+}
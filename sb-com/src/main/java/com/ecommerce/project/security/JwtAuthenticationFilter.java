@@ -2,10 +2,12 @@ package com.ecommerce.project.security;
 
 import com.ecommerce.project.model.User;
 import com.ecommerce.project.repositories.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -15,6 +17,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Component
@@ -23,6 +27,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
@@ -34,31 +40,66 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception ignored) {}
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            Optional<User> userOpt = userRepository.findByUsername(username);
-            if (userOpt.isPresent() && jwtUtil.validateToken(jwt, userOpt.get())) {
-                User user = userOpt.get();
-                UserDetails userDetails = org.springframework.security.core.userdetails.User
-                        .withUsername(user.getUsername())
-                        .password(user.getPassword())
-                        .roles(user.getRole().name())
-                        .build();
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            VerifiedTokenCache.VerifiedToken verified = verify(authHeader.substring(7));
+            if (verified != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        verified.principal(), null, verified.authorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    // A cached token is trusted until its cache entry expires; otherwise the token is parsed once
+    // (signature and expiry) and the principal is built from its claims
+    private VerifiedTokenCache.VerifiedToken verify(String jwt) {
+        VerifiedTokenCache.VerifiedToken cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = jwtUtil.parseVerified(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        AuthenticatedUser principal = resolvePrincipal(claims);
+        if (principal == null) {
+            return null;
+        }
+        VerifiedTokenCache.VerifiedToken verified = new VerifiedTokenCache.VerifiedToken(principal,
+                List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().name())),
+                claims.getExpiration().getTime());
+        verifiedTokenCache.put(jwt, verified);
+        return verified;
+    }
+
+    private AuthenticatedUser resolvePrincipal(Claims claims) {
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        Long stamp = claims.get(JwtUtil.PASSWORD_STAMP_CLAIM, Long.class);
+        if (userId != null && role != null) {
+            // Only revocation needs the database, and only as an exists check: no entity, no password hash
+            boolean current = stamp == null
+                    ? userRepository.existsByUserIdAndPasswordChangedAtIsNull(userId)
+                    : userRepository.existsByUserIdAndPasswordChangedAt(userId, Instant.ofEpochMilli(stamp));
+            return current ? new AuthenticatedUser(userId, claims.getSubject(), User.Role.valueOf(role)) : null;
+        }
+        // Tokens issued before the userId claim existed still resolve through the user row
+        Optional<User> userOpt = userRepository.findByUsername(claims.getSubject());
+        if (userOpt.isEmpty() || !matchesPasswordStamp(stamp, userOpt.get())) {
+            return null;
+        }
+        return AuthenticatedUser.of(userOpt.get());
+    }
+
+    // Exact rather than comparing with iat, which only has second precision
+    private static boolean matchesPasswordStamp(Long stamp, User user) {
+        Instant changedAt = user.getPasswordChangedAt();
+        return changedAt == null ? stamp == null : stamp != null && stamp == changedAt.toEpochMilli();
+    }
+}
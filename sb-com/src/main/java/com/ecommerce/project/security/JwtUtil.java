@@ -2,6 +2,8 @@ package com.ecommerce.project.security;
 
 import com.ecommerce.project.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -15,9 +17,16 @@ import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    // When the user's password last changed as of issuing; a token stops matching once it changes again
+    public static final String PASSWORD_STAMP_CLAIM = "pwdAt";
+
     // Use a secure, random key for HS256
     private final SecretKey SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
     private final long EXPIRATION = 1000 * 60 * 60 * 10; // 10 hours
+    // Thread-safe, so built once rather than per parse
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(SECRET_KEY).build();
 
     public JwtUtil() {
         System.out.println("JWT SECRET KEY (base64): " + java.util.Base64.getEncoder().encodeToString(SECRET_KEY.getEncoded()));
@@ -26,7 +35,11 @@ public class JwtUtil {
 
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", user.getRole().name());
+        claims.put(USER_ID_CLAIM, user.getUserId());
+        claims.put(ROLE_CLAIM, user.getRole().name());
+        if (user.getPasswordChangedAt() != null) {
+            claims.put(PASSWORD_STAMP_CLAIM, user.getPasswordChangedAt().toEpochMilli());
+        }
         return createToken(claims, user.getUsername());
     }
 
@@ -45,40 +58,20 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseVerified(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    // Verifies the signature and expiry (the parser rejects expired tokens) in one parse and returns the claims
+    public Claims parseVerified(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean validateToken(String token, User user) {
-        final String username = extractUsername(token);
-        return (username.equals(user.getUsername()) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public static String extractUsernameFromHeader(String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            String[] parts = token.split("\\.");
-            if (parts.length == 3) {
-                String payload = new String(java.util.Base64.getDecoder().decode(parts[1]));
-                if (payload.contains("\"sub\"")) {
-                    return payload.split("\"sub\":\"")[1].split("\"")[0];
-                } else if (payload.contains("\"username\"")) {
-                    return payload.split("\"username\":\"")[1].split("\"")[0];
-                }
-            }
+        try {
+            return parseVerified(token).getSubject().equals(user.getUsername());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
         }
-        return null;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.project.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+// Tokens that already passed signature verification and the user lookup, so repeat requests with the
+// same token skip both. Keyed by the token's SHA-256 (the raw token is a credential); an entry lives
+// until the token expires or max-ttl passes, whichever is first. max-ttl bounds how long another node
+// keeps honouring a token after a password change it only sees through the database.
+@Component
+public class VerifiedTokenCache {
+
+    public record VerifiedToken(AuthenticatedUser principal, List<GrantedAuthority> authorities, long expiresAtMillis) {}
+
+    @Value("${app.security.token-cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${app.security.token-cache.max-ttl:5m}")
+    private Duration maxTtl;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        long untilExpiry = Duration.ofMillis(token.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(untilExpiry, maxTtl.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public VerifiedToken get(String token) {
+        return cache.getIfPresent(hash(token));
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        cache.put(hash(token), verified);
+    }
+
+    // Called on password change: the user's tokens must go through full verification again, where
+    // ones issued before the change are rejected. Rare enough that a scan is fine.
+    public void invalidateUser(String username) {
+        cache.asMap().values().removeIf(verified -> verified.principal().username().equals(username));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,14 +2,18 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.model.*;
 import com.ecommerce.project.repositories.*;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import java.util.ArrayList;
 import java.util.List;
 
 @Service
+@ConditionalOnProperty(name = "app.cart.write-behind.enabled", havingValue = "false", matchIfMissing = true)
 public class CartServiceImpl implements CartService {
     @Autowired
     private CartRepository cartRepository;
@@ -21,10 +25,12 @@ public class CartServiceImpl implements CartService {
     private ProductRepository productRepository;
 
     @Override
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
     public Cart getCartByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        return cartRepository.findByUser(user).orElseGet(() -> {
+        // Existing carts load in one query; the user is only looked up when a cart has to be created
+        return cartRepository.findWithItemsByUserId(userId).orElseGet(() -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
             Cart cart = new Cart();
             cart.setUser(user);
             cart.setItems(new ArrayList<>());
@@ -33,6 +39,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
     public Cart addItemToCart(Long userId, Long productId, int quantity) {
         Cart cart = getCartByUserId(userId);
         Product product = productRepository.findById(productId)
@@ -56,6 +63,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
     public Cart updateItemQuantity(Long userId, Long productId, int quantity) {
         Cart cart = getCartByUserId(userId);
         List<CartItem> items = cart.getItems();
@@ -68,7 +76,11 @@ public class CartServiceImpl implements CartService {
         return cartRepository.save(cart);
     }
 
+    // One transaction so the cart stays managed: merging a detached cart after deleting its item made
+    // orphan removal look the deleted row up again and fail
     @Override
+    @Transactional
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
     public Cart removeItemFromCart(Long userId, Long productId) {
         Cart cart = getCartByUserId(userId);
         List<CartItem> items = cart.getItems();
@@ -83,12 +95,9 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @Transactional
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
     public void clearCart(Long userId) {
-        Cart cart = getCartByUserId(userId);
-        for (CartItem item : new ArrayList<>(cart.getItems())) {
-            cartItemRepository.delete(item);
-        }
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        cartItemRepository.deleteAllByUserId(userId);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.ecommerce.project.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Live cart contents (productId -> quantity) for write-behind cart mode. Every mutation marks the
+// user's cart dirty; the dirty carts are persisted to the carts/cart_items tables in batches.
+public interface CartStore {
+    boolean isLoaded(Long userId);
+    // Seeds the store from the database copy unless the cart is already loaded
+    void load(Long userId, Map<Long, Integer> quantities);
+    Map<Long, Integer> getItems(Long userId);
+    int increment(Long userId, Long productId, int delta);
+    // Returns false when the product is not in the cart
+    boolean setQuantity(Long userId, Long productId, int quantity);
+    boolean remove(Long userId, Long productId);
+    void clear(Long userId);
+    List<Long> drainDirty(int max);
+    void markDirty(Collection<Long> userIds);
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Running catalog aggregates, adjusted by deltas on every product write instead of rescanning the table
+@Component
+public class CatalogStatsAggregator {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final Map<Long, CategoryTotals> categories = new HashMap<>();
+    // price -> number of products at that price, so min/max survive deletes
+    private final TreeMap<Double, Long> priceCounts = new TreeMap<>();
+    private long totalProducts;
+    private double totalPrice;
+    private long totalStock;
+    // Deltas applied while reconcile() is reading the database, replayed on top of its figures
+    private List<Runnable> pendingDeltas;
+    private final Object reconcileLock = new Object();
+
+    // The figures a single product contributes to the aggregates
+    public record Contribution(Long categoryId, String categoryName, double price, int stock) {
+        public static Contribution of(Product product) {
+            Category category = product.getCategory();
+            return new Contribution(
+                    category != null ? category.getCategoryId() : null,
+                    category != null ? category.getCategoryName() : null,
+                    product.getPrice(),
+                    product.getStock());
+        }
+    }
+
+    public synchronized void onProductCreated(Product product) {
+        Contribution contribution = Contribution.of(product);
+        apply(() -> add(contribution));
+    }
+
+    public synchronized void onProductUpdated(Contribution before, Product after) {
+        Contribution contribution = Contribution.of(after);
+        apply(() -> {
+            subtract(before);
+            add(contribution);
+        });
+    }
+
+    public synchronized void onProductDeleted(Product product) {
+        Contribution contribution = Contribution.of(product);
+        apply(() -> subtract(contribution));
+    }
+
+    public synchronized void onStockChanged(Long categoryId, int delta) {
+        apply(() -> {
+            totalStock += delta;
+            CategoryTotals totals = categories.get(categoryId);
+            if (totals != null) {
+                totals.stock += delta;
+            }
+        });
+    }
+
+    // Replaces the running totals with figures aggregated by the database. Writers are not blocked while
+    // the queries run; their deltas are recorded and replayed once the fresh figures are in place.
+    public Map<String, Object> reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                pendingDeltas = new ArrayList<>();
+            }
+            try {
+                return reloadAndReplay();
+            } finally {
+                synchronized (this) {
+                    pendingDeltas = null;
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> reloadAndReplay() {
+        Map<Long, CategoryTotals> freshCategories = new HashMap<>();
+        for (Object[] row : productRepository.aggregateByCategory()) {
+            CategoryTotals totals = new CategoryTotals((String) row[1]);
+            totals.count = ((Number) row[2]).longValue();
+            totals.priceSum = row[3] != null ? ((Number) row[3]).doubleValue() : 0.0;
+            totals.stock = row[4] != null ? ((Number) row[4]).longValue() : 0L;
+            freshCategories.put((Long) row[0], totals);
+        }
+        TreeMap<Double, Long> freshPrices = new TreeMap<>();
+        for (Object[] row : productRepository.countByPrice()) {
+            freshPrices.put(((Number) row[0]).doubleValue(), ((Number) row[1]).longValue());
+        }
+
+        synchronized (this) {
+            categories.clear();
+            categories.putAll(freshCategories);
+            priceCounts.clear();
+            priceCounts.putAll(freshPrices);
+            totalProducts = 0;
+            totalPrice = 0;
+            totalStock = 0;
+            for (CategoryTotals totals : categories.values()) {
+                totalProducts += totals.count;
+                totalPrice += totals.priceSum;
+                totalStock += totals.stock;
+            }
+            pendingDeltas.forEach(Runnable::run);
+            return snapshot();
+        }
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalProducts", totalProducts);
+        stats.put("totalCategories", categories.size());
+        stats.put("averagePrice", totalProducts > 0 ? totalPrice / totalProducts : 0.0);
+        stats.put("totalStock", totalStock);
+        stats.put("minPrice", priceCounts.isEmpty() ? 0.0 : priceCounts.firstKey());
+        stats.put("maxPrice", priceCounts.isEmpty() ? 0.0 : priceCounts.lastKey());
+
+        List<Map<String, Object>> perCategory = new ArrayList<>();
+        for (Map.Entry<Long, CategoryTotals> entry : categories.entrySet()) {
+            CategoryTotals totals = entry.getValue();
+            Map<String, Object> category = new HashMap<>();
+            category.put("categoryId", entry.getKey());
+            category.put("categoryName", totals.name);
+            category.put("productCount", totals.count);
+            category.put("averagePrice", totals.count > 0 ? totals.priceSum / totals.count : 0.0);
+            category.put("totalStock", totals.stock);
+            perCategory.add(category);
+        }
+        stats.put("categories", perCategory);
+        return stats;
+    }
+
+    // Caller holds the monitor
+    private void apply(Runnable delta) {
+        delta.run();
+        if (pendingDeltas != null) {
+            pendingDeltas.add(delta);
+        }
+    }
+
+    private void add(Contribution contribution) {
+        totalProducts++;
+        totalPrice += contribution.price();
+        totalStock += contribution.stock();
+        priceCounts.merge(contribution.price(), 1L, Long::sum);
+
+        CategoryTotals totals = categories.computeIfAbsent(contribution.categoryId(),
+                id -> new CategoryTotals(contribution.categoryName()));
+        totals.count++;
+        totals.priceSum += contribution.price();
+        totals.stock += contribution.stock();
+    }
+
+    private void subtract(Contribution contribution) {
+        totalProducts--;
+        totalPrice -= contribution.price();
+        totalStock -= contribution.stock();
+        priceCounts.computeIfPresent(contribution.price(), (price, count) -> count > 1 ? count - 1 : null);
+
+        CategoryTotals totals = categories.get(contribution.categoryId());
+        if (totals != null) {
+            totals.count--;
+            totals.priceSum -= contribution.price();
+            totals.stock -= contribution.stock();
+            if (totals.count <= 0) {
+                categories.remove(contribution.categoryId());
+            }
+        }
+    }
+
+    private static final class CategoryTotals {
+        private final String name;
+        private long count;
+        private double priceSum;
+        private long stock;
+
+        private CategoryTotals(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.project.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Remembers which order each (user, Idempotency-Key) pair produced. Concurrent duplicates wait for the
+// first request's result instead of running checkout again; a failed attempt is forgotten so it can be retried.
+// With Redis, a node claims the key with a short lease while it runs checkout and only then records the order
+// id for the full ttl, so a claimant that crashes blocks retries for the lease rather than the whole ttl.
+@Component
+public class CheckoutIdempotency {
+
+    private static final String REDIS_PREFIX = "idempotency:order:";
+    private static final long PENDING = 0L;
+    private static final long REMOTE_POLL_MILLIS = 50;
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int RECORD_ATTEMPTS = 3;
+
+    @Autowired(required = false)
+    private RedisService redisService;
+
+    @Value("${app.orders.idempotency.ttl:24h}")
+    private Duration ttl;
+    @Value("${app.orders.idempotency.max-keys:100000}")
+    private long maxKeys;
+    // How long a duplicate waits for another node to finish the original request
+    @Value("${app.orders.idempotency.remote-wait:5s}")
+    private Duration remoteWait;
+    // How long a claim blocks other nodes; must comfortably exceed the time a checkout takes
+    @Value("${app.orders.idempotency.claim-lease:30s}")
+    private Duration claimLease;
+
+    private Cache<String, CompletableFuture<Long>> results;
+
+    @PostConstruct
+    public void init() {
+        results = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Runs checkout at most once per key and returns the resulting order id
+    public Long execute(Long userId, String idempotencyKey, Supplier<Long> checkout) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Idempotency-Key");
+        }
+        String key = userId + ":" + idempotencyKey;
+        CompletableFuture<Long> mine = new CompletableFuture<>();
+        CompletableFuture<Long> existing = results.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            Long orderId = claimOrAwait(key, checkout);
+            mine.complete(orderId);
+            return orderId;
+        } catch (RuntimeException e) {
+            results.asMap().remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Long runAndRecord(String key, Supplier<Long> checkout) {
+        try {
+            Long orderId = checkout.get();
+            if (redisService != null) {
+                record(key, orderId);
+            }
+            return orderId;
+        } catch (RuntimeException e) {
+            if (redisService != null) {
+                redisService.delete(REDIS_PREFIX + key);
+            }
+            throw e;
+        }
+    }
+
+    // The order exists whatever happens here, so a failed write is retried and then reported rather than
+    // failing the request; until the lease runs out other nodes still treat the key as in progress
+    private void record(String key, Long orderId) {
+        for (int attempt = 1; attempt <= RECORD_ATTEMPTS; attempt++) {
+            if (redisService.set(REDIS_PREFIX + key, orderId, ttl.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+        System.err.println("Could not record order " + orderId + " for Idempotency-Key " + key
+                + "; retries on other nodes are only deduplicated for the next " + claimLease);
+    }
+
+    // With Redis, the key is also claimed cluster-wide so a retry landing on another node is deduplicated.
+    // A duplicate waits for the claimant's order id; if the claim goes away (the claimant failed and
+    // released it, or its lease expired) the duplicate claims the key and runs checkout itself.
+    private Long claimOrAwait(String key, Supplier<Long> checkout) {
+        if (redisService == null) {
+            return runAndRecord(key, checkout);
+        }
+        long deadline = System.nanoTime() + remoteWait.toNanos();
+        while (true) {
+            if (redisService.setIfAbsent(REDIS_PREFIX + key, PENDING, claimLease.toMillis(), TimeUnit.MILLISECONDS)) {
+                return runAndRecord(key, checkout);
+            }
+            Object value = redisService.get(REDIS_PREFIX + key);
+            if (value != null && ((Number) value).longValue() != PENDING) {
+                return ((Number) value).longValue();
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+            }
+            if (value != null) {
+                try {
+                    Thread.sleep(REMOTE_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+                }
+            }
+        }
+    }
+
+    private static Long await(CompletableFuture<Long> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.OrderItem;
+import com.ecommerce.project.repositories.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+// Stages that run after an order has been accepted (persisted and its cart cleared):
+// reserve stock (ACCEPTED -> RESERVED), then place (RESERVED -> PLACED).
+// Every transition is a compare-and-set on the status, so an order resubmitted by the recovery
+// sweep while still being processed is never reserved twice.
+// Orders get a virtual thread each, but at most max-concurrency of them work at once so a burst of
+// checkouts queues here instead of exhausting the connection pool.
+@Component
+public class CheckoutPipeline {
+    // Orders stuck in a non-terminal state for this long (e.g. after a restart) are resubmitted
+    private static final long STALE_AFTER_SECONDS = 60;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    @Qualifier("checkoutExecutor")
+    private Executor checkoutExecutor;
+
+    private final Semaphore permits;
+    private final int maxAttempts;
+    // Transient failures per order still in flight; an order that keeps failing is given up on
+    private final Map<Long, Integer> failedAttempts = new ConcurrentHashMap<>();
+
+    public CheckoutPipeline(@Value("${app.orders.pipeline.max-concurrency:16}") int maxConcurrency,
+                            @Value("${app.orders.pipeline.max-attempts:5}") int maxAttempts) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Called inside the accepting transaction: work starts only once the order is committed
+    public void submit(Long orderId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    checkoutExecutor.execute(() -> process(orderId));
+                }
+            });
+        } else {
+            checkoutExecutor.execute(() -> process(orderId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.recovery-interval:60s}")
+    public void resubmitStalled() {
+        List<Long> stalled = orderRepository.findIdsByStatusInAndOrderDateBefore(
+                List.of(Order.Status.ACCEPTED, Order.Status.RESERVED),
+                LocalDateTime.now().minusSeconds(STALE_AFTER_SECONDS));
+        for (Long orderId : stalled) {
+            checkoutExecutor.execute(() -> process(orderId));
+        }
+        if (!stalled.isEmpty()) {
+            System.out.println("Resubmitted " + stalled.size() + " stalled orders");
+        }
+    }
+
+    void process(Long orderId) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            // Left ACCEPTED; the recovery sweep picks it up
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            runStages(orderId);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void runStages(Long orderId) {
+        try {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> reserve(orderId)))) {
+                transactionTemplate.execute(status ->
+                        orderRepository.transitionStatus(orderId, Order.Status.RESERVED, Order.Status.PLACED));
+            }
+            failedAttempts.remove(orderId);
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                reject(orderId, e.getReason());
+            } else {
+                fail(orderId, e);
+            }
+        } catch (RuntimeException e) {
+            if (isTransient(e) && failedAttempts.merge(orderId, 1, Integer::sum) < maxAttempts) {
+                // Nothing committed for the failed stage, so the order keeps its state and is retried
+                System.err.println("Order " + orderId + " will be retried: " + e.getMessage());
+            } else {
+                fail(orderId, e);
+            }
+        }
+    }
+
+    // Pool timeouts, lock timeouts, deadlocks and lost connections say nothing about the order itself
+    static boolean isTransient(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    // Moves the order to RESERVED and takes its stock in one transaction; a shortfall rolls both back.
+    // Returns true when the order is (now) RESERVED and ready to be placed.
+    private boolean reserve(Long orderId) {
+        Order order = orderRepository.findWithItemsById(orderId).orElse(null);
+        if (order == null) {
+            return false;
+        }
+        if (order.getStatus() == Order.Status.RESERVED) {
+            return true;
+        }
+        if (orderRepository.transitionStatus(orderId, Order.Status.ACCEPTED, Order.Status.RESERVED) == 0) {
+            return false;
+        }
+        inventoryService.reserve(stockLines(order));
+        return true;
+    }
+
+    private static List<InventoryService.StockLine> stockLines(Order order) {
+        List<InventoryService.StockLine> lines = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            lines.add(InventoryService.StockLine.of(item.getProduct(), item.getQuantity()));
+        }
+        return lines;
+    }
+
+    // Out of stock: the order is rejected and its items go back into the customer's cart
+    private void reject(Long orderId, String reason) {
+        Order order = orderRepository.findWithItemsById(orderId).orElse(null);
+        Boolean rejected = transactionTemplate.execute(status ->
+                orderRepository.transitionStatus(orderId, Order.Status.ACCEPTED, Order.Status.REJECTED) == 1);
+        if (order == null || !Boolean.TRUE.equals(rejected)) {
+            return;
+        }
+        System.out.println("Order " + orderId + " rejected: " + reason);
+        restoreCart(order);
+    }
+
+    // Permanent failure (or too many transient ones): like a rejection, the customer gets their cart
+    // back to try again. An order that already reserved its stock hands it back in the same transaction
+    // that marks it FAILED.
+    private void fail(Long orderId, RuntimeException cause) {
+        System.err.println("Order " + orderId + " failed: " + cause.getMessage());
+        failedAttempts.remove(orderId);
+        Order order;
+        Boolean failed;
+        try {
+            order = orderRepository.findWithItemsById(orderId).orElse(null);
+            if (order == null) {
+                return;
+            }
+            failed = transactionTemplate.execute(status -> {
+                if (orderRepository.transitionStatus(orderId, Order.Status.ACCEPTED, Order.Status.FAILED) == 1) {
+                    return true;
+                }
+                if (orderRepository.transitionStatus(orderId, Order.Status.RESERVED, Order.Status.FAILED) == 1) {
+                    inventoryService.release(stockLines(order));
+                    return true;
+                }
+                return false;
+            });
+        } catch (RuntimeException e) {
+            // Nothing changed; the recovery sweep tries the order again
+            System.err.println("Could not mark order " + orderId + " failed: " + e.getMessage());
+            return;
+        }
+        if (Boolean.TRUE.equals(failed)) {
+            restoreCart(order);
+        }
+    }
+
+    private void restoreCart(Order order) {
+        try {
+            for (OrderItem item : order.getItems()) {
+                cartService.addItemToCart(order.getUser().getUserId(), item.getProduct().getProductId(), item.getQuantity());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not restore cart for order " + order.getOrderId() + ": " + e.getMessage());
+        }
+    }
+}
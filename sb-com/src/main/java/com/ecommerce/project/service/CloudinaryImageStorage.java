@@ -0,0 +1,35 @@
+package com.ecommerce.project.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "app.images.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageStorage implements ImageStorage {
+    private final Cloudinary cloudinary;
+
+    public CloudinaryImageStorage(
+            @Value("${cloudinary.cloud_name}") String cloudName,
+            @Value("${cloudinary.api_key}") String apiKey,
+            @Value("${cloudinary.api_secret}") String apiSecret) {
+        this.cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", cloudName,
+                "api_key", apiKey,
+                "api_secret", apiSecret
+        ));
+    }
+
+    // Passing a File lets the client stream the multipart body from disk
+    @Override
+    public String store(Path file, String originalFilename) throws IOException {
+        Map uploadResult = cloudinary.uploader().upload(file.toFile(), ObjectUtils.emptyMap());
+        return uploadResult.get("secure_url").toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.project.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Where uploaded product images end up. Implementations read the staged file from disk rather than
+// taking the bytes, so an upload never needs a full in-heap copy of the image.
+public interface ImageStorage {
+    // Stores the file and returns the URL clients should use for it; the caller deletes the staged file
+    String store(Path file, String originalFilename) throws IOException;
+}
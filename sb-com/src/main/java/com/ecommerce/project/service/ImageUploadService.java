@@ -1,31 +1,90 @@
 package com.ecommerce.project.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
-import org.springframework.beans.factory.annotation.Value;
+import com.ecommerce.project.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+// Uploads product images off the request thread. The multipart part is moved to a staging file while
+// the request is still open (the container deletes its own temp file afterwards), then handed to
+// ImageStorage on the bounded image executor; the product's image URLs and imageStatus are set on completion.
 @Service
 public class ImageUploadService {
-    private final Cloudinary cloudinary;
-
-    public ImageUploadService(
-            @Value("${cloudinary.cloud_name}") String cloudName,
-            @Value("${cloudinary.api_key}") String apiKey,
-            @Value("${cloudinary.api_secret}") String apiSecret) {
-        this.cloudinary = new Cloudinary(ObjectUtils.asMap(
-                "cloud_name", cloudName,
-                "api_key", apiKey,
-                "api_secret", apiSecret
-        ));
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    @Qualifier("imageUploadExecutor")
+    private Executor imageUploadExecutor;
+
+    public void uploadAsync(Long productId, MultipartFile file) {
+        Path staged;
+        try {
+            staged = Files.createTempFile("product-image-", ".upload");
+            // Moves the container's temp file where possible instead of reading it into memory
+            file.transferTo(staged);
+        } catch (IOException e) {
+            System.err.println("Failed to stage image for product " + productId + ": " + e.getMessage());
+            productService.updateProductImage(productId, null, null, null, Product.ImageStatus.FAILED);
+            return;
+        }
+        String originalFilename = file.getOriginalFilename();
+        try {
+            imageUploadExecutor.execute(() -> upload(productId, staged, originalFilename));
+        } catch (RejectedExecutionException e) {
+            System.err.println("Image upload queue full, dropping image for product " + productId);
+            deleteQuietly(staged);
+            productService.updateProductImage(productId, null, null, null, Product.ImageStatus.FAILED);
+        }
+    }
+
+    private void upload(Long productId, Path staged, String originalFilename) {
+        try {
+            // Variants first: storing the original may move the staged file away
+            Map<ImageVariantService.Variant, String> variants = generateVariants(productId, staged);
+            String imageUrl = imageStorage.store(staged, originalFilename);
+            productService.updateProductImage(productId, imageUrl,
+                    variants.get(ImageVariantService.Variant.THUMBNAIL),
+                    variants.get(ImageVariantService.Variant.MEDIUM),
+                    Product.ImageStatus.READY);
+        } catch (Exception e) {
+            System.err.println("Image upload failed for product " + productId + ": " + e.getMessage());
+            productService.updateProductImage(productId, null, null, null, Product.ImageStatus.FAILED);
+        } finally {
+            deleteQuietly(staged);
+        }
+    }
+
+    // A format ImageIO can't decode (e.g. WebP) still gets its original stored, just without variants
+    private Map<ImageVariantService.Variant, String> generateVariants(Long productId, Path staged) {
+        try {
+            return imageVariantService.generate(staged);
+        } catch (Exception e) {
+            System.err.println("Could not generate image variants for product " + productId + ": " + e.getMessage());
+            return Map.of();
+        }
     }
 
-    public String uploadFile(MultipartFile file) throws IOException {
-        Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-        return uploadResult.get("secure_url").toString();
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Failed to delete staged image " + path + ": " + e.getMessage());
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.project.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Content-addressed store for generated image variants. A variant is named after the SHA-256 of its
+// bytes, so a name never changes content: it doubles as a strong ETag and the files can be cached
+// forever. Reads are served from read-only memory mappings, kept open for recently used files.
+@Component
+public class ImageVariantStore {
+
+    private static final Pattern NAME = Pattern.compile("[0-9a-f]{64}\\.jpg");
+
+    @Value("${app.images.variants-dir:uploads/variants}")
+    private String variantsDir;
+
+    @Value("${app.images.variants.mapped-cache-size:1000}")
+    private long mappedCacheSize;
+
+    private Path root;
+    private LoadingCache<String, MappedByteBuffer> mapped;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Path.of(variantsDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        // A mapping stays valid after its channel is closed and lives outside the heap
+        mapped = Caffeine.newBuilder()
+                .maximumSize(mappedCacheSize)
+                .build(name -> {
+                    try (FileChannel channel = FileChannel.open(root.resolve(name), StandardOpenOption.READ)) {
+                        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    } catch (NoSuchFileException e) {
+                        return null;
+                    }
+                });
+    }
+
+    // Returns the variant's name; storing the same bytes twice is a no-op
+    public String put(byte[] jpeg) throws IOException {
+        String name = sha256(jpeg) + ".jpg";
+        Path target = root.resolve(name);
+        if (Files.exists(target)) {
+            return name;
+        }
+        // Written to a temp file and renamed, so readers never map a partially written variant
+        Path temp = Files.createTempFile(root, "variant-", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(jpeg);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return name;
+    }
+
+    // A read-only view positioned at the start of the file; callers may consume it freely
+    public Optional<ByteBuffer> get(String name) {
+        if (!NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        try {
+            MappedByteBuffer buffer = mapped.get(name);
+            return buffer != null ? Optional.of(buffer.asReadOnlyBuffer()) : Optional.empty();
+        } catch (UncheckedIOException e) {
+            System.err.println("Failed to map image variant " + name + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // The ETag is the content hash already in the name
+    public static String etagOf(String name) {
+        return "\"" + name.substring(0, name.length() - ".jpg".length()) + "\"";
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+
+import java.util.Collection;
+
+public interface InventoryService {
+    // One product and quantity to take from (or return to) stock
+    record StockLine(Long productId, Long categoryId, int quantity) {
+        public static StockLine of(Product product, int quantity) {
+            return new StockLine(product.getProductId(),
+                    product.getCategory() != null ? product.getCategory().getCategoryId() : null,
+                    quantity);
+        }
+    }
+
+    void reserve(Collection<StockLine> lines);
+    void release(Collection<StockLine> lines);
+}
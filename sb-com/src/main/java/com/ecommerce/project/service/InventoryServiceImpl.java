@@ -0,0 +1,90 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Stock is reserved with conditional row updates, so the only locking is the database's own row lock
+// on each product being bought; there is no application-level lock
+@Service
+public class InventoryServiceImpl implements InventoryService {
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductCache productCache;
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    @Autowired
+    private CatalogStatsAggregator catalogStatsAggregator;
+
+    // All-or-nothing: a shortfall on any line throws 409 and rolls back the lines already decremented
+    @Override
+    @Transactional
+    public void reserve(Collection<StockLine> lines) {
+        List<StockLine> sorted = merge(lines);
+        for (StockLine line : sorted) {
+            if (productRepository.decrementStock(line.productId(), line.quantity()) == 0) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Insufficient stock for product " + line.productId());
+            }
+        }
+        afterCommit(sorted, -1);
+    }
+
+    @Override
+    @Transactional
+    public void release(Collection<StockLine> lines) {
+        List<StockLine> sorted = merge(lines);
+        for (StockLine line : sorted) {
+            productRepository.incrementStock(line.productId(), line.quantity());
+        }
+        afterCommit(sorted, 1);
+    }
+
+    // One line per product, in product id order: every transaction takes row locks in the same order,
+    // so two overlapping checkouts queue behind each other instead of deadlocking
+    private static List<StockLine> merge(Collection<StockLine> lines) {
+        Map<Long, StockLine> byProduct = new TreeMap<>();
+        for (StockLine line : lines) {
+            if (line.quantity() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be positive");
+            }
+            byProduct.merge(line.productId(), line,
+                    (a, b) -> new StockLine(a.productId(), a.categoryId(), a.quantity() + b.quantity()));
+        }
+        return new ArrayList<>(byProduct.values());
+    }
+
+    // Caches, the search index and catalog stats only see the change once it is committed
+    private void afterCommit(List<StockLine> lines, int sign) {
+        Runnable publish = () -> {
+            for (StockLine line : lines) {
+                int delta = sign * line.quantity();
+                catalogStatsAggregator.onStockChanged(line.categoryId(), delta);
+                productSearchIndex.adjustStock(line.productId(), delta);
+                productCache.invalidate(line.productId());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.project.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Single-node stand-in for RedisCartStore when Redis is not configured
+@Component
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "simple")
+public class LocalCartStore implements CartStore {
+
+    private final Map<Long, Map<Long, Integer>> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean isLoaded(Long userId) {
+        return carts.containsKey(userId);
+    }
+
+    @Override
+    public void load(Long userId, Map<Long, Integer> quantities) {
+        carts.computeIfAbsent(userId, id -> new ConcurrentHashMap<>(quantities));
+    }
+
+    @Override
+    public Map<Long, Integer> getItems(Long userId) {
+        Map<Long, Integer> items = carts.get(userId);
+        return items != null ? new LinkedHashMap<>(items) : new LinkedHashMap<>();
+    }
+
+    @Override
+    public int increment(Long userId, Long productId, int delta) {
+        Integer quantity = cart(userId).merge(productId, delta, (a, b) -> a + b > 0 ? a + b : null);
+        dirty.add(userId);
+        return quantity != null ? quantity : 0;
+    }
+
+    @Override
+    public boolean setQuantity(Long userId, Long productId, int quantity) {
+        boolean updated = cart(userId).replace(productId, quantity) != null;
+        if (updated) {
+            dirty.add(userId);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean remove(Long userId, Long productId) {
+        boolean removed = cart(userId).remove(productId) != null;
+        if (removed) {
+            dirty.add(userId);
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear(Long userId) {
+        carts.put(userId, new ConcurrentHashMap<>());
+        dirty.add(userId);
+    }
+
+    @Override
+    public List<Long> drainDirty(int max) {
+        List<Long> drained = new ArrayList<>();
+        Iterator<Long> iterator = dirty.iterator();
+        while (iterator.hasNext() && drained.size() < max) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    @Override
+    public void markDirty(Collection<Long> userIds) {
+        dirty.addAll(userIds);
+    }
+
+    private Map<Long, Integer> cart(Long userId) {
+        return carts.computeIfAbsent(userId, id -> new ConcurrentHashMap<>());
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.project.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Keeps images on the local filesystem and serves them through ImageController; needs no external service
+@Component
+@ConditionalOnProperty(name = "app.images.storage", havingValue = "local")
+public class LocalImageStorage implements ImageStorage {
+
+    public static final String URL_PREFIX = "/api/images/";
+    private static final Pattern EXTENSION = Pattern.compile("\\.[a-z0-9]{1,5}");
+
+    @Value("${app.images.local-dir:uploads/images}")
+    private String localDir;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Path.of(localDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        System.out.println("Local image storage at " + root);
+    }
+
+    @Override
+    public String store(Path file, String originalFilename) throws IOException {
+        String name = UUID.randomUUID() + extensionOf(originalFilename);
+        // A rename when the staging directory is on the same filesystem, a streamed copy otherwise
+        Files.move(file, root.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        return URL_PREFIX + name;
+    }
+
+    public Optional<Path> resolve(String name) {
+        Path path = root.resolve(name).normalize();
+        if (!path.getParent().equals(root) || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(path);
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        String extension = dot >= 0 ? filename.substring(dot).toLowerCase(Locale.ROOT) : "";
+        return EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+}
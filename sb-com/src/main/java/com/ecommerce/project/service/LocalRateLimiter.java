@@ -0,0 +1,70 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Per-node buckets. Each bucket is an AtomicLong updated by CAS, so there is no lock on the request
+// path; contention exists only between requests of the same client and route. Buckets idle long enough
+// to have refilled completely are evicted, since a fresh bucket is equivalent.
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LocalRateLimiter(RateLimitProperties properties) {
+        this(properties.getMaxKeys(), longestRefill(properties), System::nanoTime);
+    }
+
+    LocalRateLimiter(long maxKeys, Duration idleEviction, LongSupplier clock) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleEviction)
+                .build();
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryAcquire(String key, Limit limit) {
+        AtomicLong bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            // An arrival time in the distant past: a full bucket
+            bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        while (true) {
+            long now = clock.getAsLong();
+            long stored = bucket.get();
+            long tat = Math.max(stored, now);
+            long next = tat + limit.intervalNanos();
+            long allowAt = next - limit.burstNanos();
+            if (allowAt > now) {
+                return allowAt - now;
+            }
+            if (bucket.compareAndSet(stored, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static Duration longestRefill(RateLimitProperties properties) {
+        Duration longest = Duration.ofMinutes(1);
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            Limit limit = Limit.of(route.getCapacity(), route.getRefillPerSecond());
+            Duration refill = Duration.ofNanos(limit.burstNanos());
+            if (refill.compareTo(longest) > 0) {
+                longest = refill;
+            }
+        }
+        return longest;
+    }
+}
@@ -5,6 +5,8 @@ import java.util.List;
 
 public interface OrderService {
     Order placeOrder(Long userId);
+    Order placeOrder(Long userId, String idempotencyKey);
     List<Order> getOrdersByUser(Long userId);
     Order getOrderById(Long orderId);
+    Order.Status getOrderStatus(Long orderId);
 } 
\ No newline at end of file
@@ -2,9 +2,17 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.model.*;
 import com.ecommerce.project.repositories.*;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -15,32 +23,56 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private OrderRepository orderRepository;
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private CartService cartService;
     @Autowired
-    private CartRepository cartRepository;
+    private UserRepository userRepository;
     @Autowired
-    private CartItemRepository cartItemRepository;
+    private CheckoutPipeline checkoutPipeline;
     @Autowired
-    private UserRepository userRepository;
+    private CheckoutIdempotency checkoutIdempotency;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     @Autowired
-    private ProductRepository productRepository;
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary checkoutLines;
+    private DistributionSummary checkoutUnits;
+
+    @PostConstruct
+    public void init() {
+        checkoutLines = DistributionSummary.builder("orders.checkout.items")
+                .description("Distinct products per accepted order")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        checkoutUnits = DistributionSummary.builder("orders.checkout.units")
+                .description("Total quantity per accepted order")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
 
+    // Accepts the order synchronously: validate the cart, persist the order (items inserted as JDBC
+    // batches) and clear the cart in one transaction. Stock reservation and placement continue on the
+    // checkout pipeline once this commits; callers poll the order status.
     @Override
+    @Transactional
+    @Timed(value = "service.calls", extraTags = {"service", "order"})
     public Order placeOrder(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        Cart cart = cartRepository.findByUser(user)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cart is empty"));
+        // Database cart, or the live store in write-behind cart mode
+        Cart cart = cartService.getCartByUserId(userId);
         if (cart.getItems() == null || cart.getItems().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cart is empty");
         }
         Order order = new Order();
-        order.setUser(user);
+        order.setUser(cart.getUser());
         order.setOrderDate(LocalDateTime.now());
-        order.setStatus("PLACED");
-        List<OrderItem> orderItems = new ArrayList<>();
+        order.setStatus(Order.Status.ACCEPTED);
+        List<OrderItem> orderItems = new ArrayList<>(cart.getItems().size());
         double total = 0;
+        int units = 0;
         for (CartItem cartItem : cart.getItems()) {
+            if (cartItem.getQuantity() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid quantity for product " + cartItem.getProduct().getProductId());
+            }
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(cartItem.getProduct());
@@ -48,32 +80,63 @@ public class OrderServiceImpl implements OrderService {
             orderItem.setPrice(cartItem.getProduct().getPrice());
             orderItems.add(orderItem);
             total += cartItem.getProduct().getPrice() * cartItem.getQuantity();
+            units += cartItem.getQuantity();
         }
         order.setItems(orderItems);
         order.setTotal(total);
+        // Items are persisted through the cascade on Order.items
         Order savedOrder = orderRepository.save(order);
-        for (OrderItem item : orderItems) {
-            orderItemRepository.save(item);
-        }
-        // Clear cart
-        for (CartItem item : new ArrayList<>(cart.getItems())) {
-            cartItemRepository.delete(item);
-        }
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        cartService.clearCart(userId);
+        checkoutPipeline.submit(savedOrder.getOrderId());
+        recordCheckout(orderItems.size(), units);
         return savedOrder;
     }
 
+    // Only orders that actually commit count towards the checkout size distributions
+    private void recordCheckout(int lines, int units) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    checkoutLines.record(lines);
+                    checkoutUnits.record(units);
+                }
+            });
+        } else {
+            checkoutLines.record(lines);
+            checkoutUnits.record(units);
+        }
+    }
+
+    // Checkout commits before the key records its order id, so a duplicate never sees an uncommitted order
     @Override
+    @Timed(value = "service.calls", extraTags = {"service", "order"})
+    public Order placeOrder(Long userId, String idempotencyKey) {
+        Long orderId = checkoutIdempotency.execute(userId, idempotencyKey,
+                () -> transactionTemplate.execute(status -> placeOrder(userId).getOrderId()));
+        return getOrderById(orderId);
+    }
+
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "order"})
     public List<Order> getOrdersByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        return orderRepository.findAllByUser(user);
+        List<Order> orders = orderRepository.findAllWithItemsByUserId(userId);
+        if (orders.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return orders;
+    }
+
+    @Override
+    public Order.Status getOrderStatus(Long orderId) {
+        return orderRepository.findStatusById(orderId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
     }
 
     @Override
+    @Timed(value = "service.calls", extraTags = {"service", "order"})
     public Order getOrderById(Long orderId) {
-        return orderRepository.findById(orderId)
+        return orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ProductCache {
+    Product get(Long productId);
+    Map<Long, Product> getAll(Collection<Long> productIds);
+    void put(Product product);
+    void putAll(Collection<Product> products);
+    void invalidate(Long productId);
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque position in a keyset-paginated product listing: the sort key of the last row returned
+final class ProductCursor {
+
+    static final String SORT_ID = "id";
+    static final String SORT_PRICE = "price";
+
+    private final String sort;
+    private final long lastId;
+    private final double lastPrice;
+
+    private ProductCursor(String sort, long lastId, double lastPrice) {
+        this.sort = sort;
+        this.lastId = lastId;
+        this.lastPrice = lastPrice;
+    }
+
+    static ProductCursor start(String sort) {
+        return new ProductCursor(sort, 0L, -Double.MAX_VALUE);
+    }
+
+    static ProductCursor after(String sort, Product last) {
+        return new ProductCursor(sort, last.getProductId(), last.getPrice());
+    }
+
+    static String normalizeSort(String sort) {
+        if (sort == null || sort.isBlank() || SORT_ID.equalsIgnoreCase(sort)) {
+            return SORT_ID;
+        }
+        if (SORT_PRICE.equalsIgnoreCase(sort)) {
+            return SORT_PRICE;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort: " + sort);
+    }
+
+    // The cursor carries its own sort; an explicit sort parameter must agree with it
+    static ProductCursor decode(String cursor, String sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return start(normalizeSort(sort));
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            ProductCursor decoded;
+            if (SORT_ID.equals(parts[0]) && parts.length == 2) {
+                decoded = new ProductCursor(SORT_ID, Long.parseLong(parts[1]), -Double.MAX_VALUE);
+            } else if (SORT_PRICE.equals(parts[0]) && parts.length == 3) {
+                decoded = new ProductCursor(SORT_PRICE, Long.parseLong(parts[2]), Double.parseDouble(parts[1]));
+            } else {
+                throw new IllegalArgumentException(raw);
+            }
+            if (sort != null && !sort.isBlank() && !decoded.sort.equals(normalizeSort(sort))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not match sort: " + sort);
+            }
+            return decoded;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = SORT_PRICE.equals(sort) ? sort + ":" + lastPrice + ":" + lastId : sort + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    boolean byPrice() {
+        return SORT_PRICE.equals(sort);
+    }
+
+    String getSort() { return sort; }
+    long getLastId() { return lastId; }
+    double getLastPrice() { return lastPrice; }
+}
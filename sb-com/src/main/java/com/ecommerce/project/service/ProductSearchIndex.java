@@ -0,0 +1,198 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // Whole-word matches rank above prefix matches of the same field
+    private static final int EXACT_MATCH_BOOST = 2;
+
+    // term -> (productId -> field weight); sorted so prefix lookups are a range scan
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Product> products = new HashMap<>();
+    private final Map<Long, Set<String>> termsByProduct = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+
+    public void rebuild(Collection<Product> allProducts) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            products.clear();
+            termsByProduct.clear();
+            for (Product product : allProducts) {
+                addInternal(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Product search index rebuilt. Products: " + allProducts.size() + ", terms: " + postings.size());
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getProductId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(product.getProductId());
+            addInternal(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Stock doesn't affect terms, so swap in an updated copy instead of re-tokenizing; the indexed
+    // instance may already be held by readers and is never mutated
+    public void adjustStock(Long productId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Product current = products.get(productId);
+            if (current == null) {
+                return;
+            }
+            Product updated = new Product(current.getProductId(), current.getName(), current.getDescription(),
+                    current.getPrice(), current.getStock() + delta, current.getCategory());
+            updated.setCreatedBy(current.getCreatedBy());
+            updated.setImageUrl(current.getImageUrl());
+            updated.setThumbnailUrl(current.getThumbnailUrl());
+            updated.setMediumImageUrl(current.getMediumImageUrl());
+            updated.setImageStatus(current.getImageStatus());
+            products.put(productId, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every query term must match (as a whole word or a word prefix); results are ordered by score
+    public List<Product> search(String query) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+                Map<Long, Integer> termScores = scoreTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Integer> merged = new HashMap<>();
+                    for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                        Integer score = termScores.get(entry.getKey());
+                        if (score != null) {
+                            merged.put(entry.getKey(), entry.getValue() + score);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            List<Product> results = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Integer> entry : ranked) {
+                results.add(products.get(entry.getKey()));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> scoreTerm(String queryTerm) {
+        Map<Long, Integer> termScores = new HashMap<>();
+        SortedMap<String, Map<Long, Integer>> matches = postings.subMap(queryTerm, queryTerm + Character.MAX_VALUE);
+        for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+            int boost = match.getKey().equals(queryTerm) ? EXACT_MATCH_BOOST : 1;
+            for (Map.Entry<Long, Integer> posting : match.getValue().entrySet()) {
+                // A query term counts once per product: keep its best-scoring expansion
+                termScores.merge(posting.getKey(), posting.getValue() * boost, Math::max);
+            }
+        }
+        return termScores;
+    }
+
+    private void addInternal(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String term : tokenize(product.getName())) {
+            weights.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(product.getDescription())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                    .put(product.getProductId(), entry.getValue());
+        }
+        products.put(product.getProductId(), product);
+        termsByProduct.put(product.getProductId(), weights.keySet());
+    }
+
+    private void removeInternal(Long productId) {
+        Set<String> terms = termsByProduct.remove(productId);
+        products.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
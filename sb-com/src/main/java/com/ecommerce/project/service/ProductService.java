@@ -1,18 +1,27 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.dto.CursorPage;
 import com.ecommerce.project.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
     List<Product> getAllProducts();
+    void streamAllProducts(Consumer<Product> consumer);
     Page<Product> getAllProducts(Pageable pageable);
+    CursorPage<Product> getProductsAfter(String cursor, int size, String sort);
+    CursorPage<Product> getProductsByCategoryAfter(Long categoryId, String cursor, int size, String sort);
+    CursorPage<Product> getProductsByPriceRangeAfter(double minPrice, double maxPrice, String cursor, int size, String sort);
     Product getProductById(Long productId);
+    List<Product> getProductsByIds(List<Long> productIds);
     List<Product> getProductsByCategory(Long categoryId);
     List<Product> searchProducts(String searchTerm);
     List<Product> getProductsByPriceRange(double minPrice, double maxPrice);
     Product createProduct(Product product);
     Product updateProduct(Long productId, Product product);
+    void updateProductImage(Long productId, String imageUrl, String thumbnailUrl, String mediumImageUrl,
+                            Product.ImageStatus imageStatus);
     void deleteProduct(Long productId);
 } 
\ No newline at end of file
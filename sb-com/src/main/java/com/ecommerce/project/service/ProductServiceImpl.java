@@ -1,65 +1,160 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.dto.CursorPage;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.repositories.ProductRepository;
 import com.ecommerce.project.repositories.CategoryRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl implements ProductService {
+    // Rows streamed between persistence-context clears; matches the fetch size hint on streamAll()
+    private static final int STREAM_BATCH_SIZE = 500;
+
     @Autowired
     private ProductRepository productRepository;
     @Autowired
     private CategoryRepository categoryRepository;
-    @Autowired(required = false)
-    private RedisService redisService;
+    @Autowired
+    private ProductCache productCache;
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    @Autowired
+    private CatalogStatsAggregator catalogStatsAggregator;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<Product> consumer) {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            Iterator<Product> iterator = products.iterator();
+            int streamed = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                // Detach what has been written so heap use stays flat regardless of catalog size
+                if (++streamed % STREAM_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     @Override
     public Page<Product> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable);
     }
 
     @Override
+    @Timed(value = "service.calls", extraTags = {"service", "product"})
+    public CursorPage<Product> getProductsAfter(String cursor, int size, String sort) {
+        return seek(cursor, size, sort, (position, limit) -> position.byPrice()
+                ? productRepository.findNextByPrice(position.getLastPrice(), position.getLastId(), limit)
+                : productRepository.findNextById(position.getLastId(), limit));
+    }
+
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "product"})
+    public CursorPage<Product> getProductsByCategoryAfter(Long categoryId, String cursor, int size, String sort) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found");
+        }
+        return seek(cursor, size, sort, (position, limit) -> position.byPrice()
+                ? productRepository.findNextByCategoryIdOrderByPrice(categoryId, position.getLastPrice(), position.getLastId(), limit)
+                : productRepository.findNextByCategoryId(categoryId, position.getLastId(), limit));
+    }
+
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "product"})
+    public CursorPage<Product> getProductsByPriceRangeAfter(double minPrice, double maxPrice, String cursor, int size, String sort) {
+        return seek(cursor, size, sort, (position, limit) -> position.byPrice()
+                ? productRepository.findNextByPriceRangeOrderByPrice(minPrice, maxPrice, position.getLastPrice(), position.getLastId(), limit)
+                : productRepository.findNextByPriceRange(minPrice, maxPrice, position.getLastId(), limit));
+    }
+
+    // Fetches one row past the page to learn whether another page exists without a count query
+    private CursorPage<Product> seek(String cursor, int size, String sort,
+                                     BiFunction<ProductCursor, Pageable, List<Product>> query) {
+        ProductCursor position = ProductCursor.decode(cursor, sort);
+        List<Product> rows = query.apply(position, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<Product> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? ProductCursor.after(position.getSort(), items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "product"})
     public Product getProductById(Long productId) {
-        try {
-            // Try to get from cache first
-            Object cachedProduct = redisService.getCachedProduct(productId.toString());
-            if (cachedProduct != null) {
-                return (Product) cachedProduct;
-            }
-        } catch (Exception e) {
-            // If Redis fails, continue with database lookup
-            System.err.println("Redis cache error for product " + productId + ": " + e.getMessage());
+        Product cached = productCache.get(productId);
+        if (cached != null) {
+            return cached;
         }
-        
-        // If not in cache or Redis fails, get from database
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
-        
-        // Try to cache the product (don't fail if Redis is down)
-        try {
-            redisService.cacheProduct(productId.toString(), product);
-        } catch (Exception e) {
-            System.err.println("Redis cache error for product " + productId + ": " + e.getMessage());
-        }
-        
+        productCache.put(product);
         return product;
     }
 
+    // Cache hits first, then every miss in one query; results follow the requested order and skip unknown ids
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "product"})
+    public List<Product> getProductsByIds(List<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        Map<Long, Product> found = new HashMap<>(productCache.getAll(ids));
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            List<Product> loaded = productRepository.findAllWithAssociationsByIdIn(misses);
+            productCache.putAll(loaded);
+            for (Product product : loaded) {
+                found.put(product.getProductId(), product);
+            }
+        }
+        List<Product> results = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                results.add(product);
+            }
+        }
+        return results;
+    }
+
     @Override
     public List<Product> getProductsByCategory(Long categoryId) {
         Category category = categoryRepository.findById(categoryId)
@@ -68,33 +163,18 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Timed(value = "service.calls", extraTags = {"service", "product"})
     public List<Product> searchProducts(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllProducts();
         }
         
-        try {
-            // Try to get from cache first
-            Object cachedResults = redisService.getCachedSearchResults(searchTerm.trim());
-            if (cachedResults != null) {
-                return (List<Product>) cachedResults;
-            }
-        } catch (Exception e) {
-            // If Redis fails, continue with database search
-            System.err.println("Redis cache error for search '" + searchTerm + "': " + e.getMessage());
-        }
-        
-        // If not in cache or Redis fails, search database
-        List<Product> results = productRepository.searchProducts(searchTerm.trim());
-        
-        // Try to cache the results (don't fail if Redis is down)
-        try {
-            redisService.cacheSearchResults(searchTerm.trim(), results);
-        } catch (Exception e) {
-            System.err.println("Redis cache error for search '" + searchTerm + "': " + e.getMessage());
+        // Answer from the in-memory index once it has been built at startup
+        if (productSearchIndex.isReady()) {
+            return productSearchIndex.search(searchTerm.trim());
         }
-        
-        return results;
+
+        return productRepository.searchProducts(searchTerm.trim());
     }
 
     @Override
@@ -111,12 +191,18 @@ public class ProductServiceImpl implements ProductService {
         Category category = categoryRepository.findById(product.getCategory().getCategoryId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
         product.setCategory(category);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        productSearchIndex.index(savedProduct);
+        catalogStatsAggregator.onProductCreated(savedProduct);
+        return savedProduct;
     }
 
     @Override
     public Product updateProduct(Long productId, Product product) {
-        Product existing = getProductById(productId);
+        // Load a managed copy: cached instances are shared with concurrent readers
+        Product existing = productRepository.findById(productId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+        CatalogStatsAggregator.Contribution before = CatalogStatsAggregator.Contribution.of(existing);
         existing.setName(product.getName());
         existing.setDescription(product.getDescription());
         existing.setPrice(product.getPrice());
@@ -126,19 +212,45 @@ public class ProductServiceImpl implements ProductService {
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
             existing.setCategory(category);
         }
-        return productRepository.save(existing);
+        Product savedProduct = productRepository.save(existing);
+        productSearchIndex.index(savedProduct);
+        catalogStatsAggregator.onProductUpdated(before, savedProduct);
+        productCache.invalidate(productId);
+        return savedProduct;
+    }
+
+    // Completion callback for asynchronous image uploads; a product deleted meanwhile is simply skipped
+    @Override
+    @Transactional
+    public void updateProductImage(Long productId, String imageUrl, String thumbnailUrl, String mediumImageUrl,
+                                   Product.ImageStatus imageStatus) {
+        if (productRepository.updateImage(productId, imageUrl, thumbnailUrl, mediumImageUrl, imageStatus) == 0) {
+            return;
+        }
+        // Only once committed: evicting earlier lets a concurrent read re-cache the old row
+        Runnable publish = () -> {
+            productCache.invalidate(productId);
+            productRepository.findById(productId).ifPresent(productSearchIndex::index);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
     }
 
     @Override
     public void deleteProduct(Long productId) {
-        Product product = getProductById(productId);
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
         productRepository.delete(product);
-        
-        // Try to invalidate cache (don't fail if Redis is down)
-        try {
-            redisService.invalidateProductCache(productId.toString());
-        } catch (Exception e) {
-            System.err.println("Redis invalidation error for product " + productId + ": " + e.getMessage());
-        }
+        productSearchIndex.remove(productId);
+        catalogStatsAggregator.onProductDeleted(product);
+        productCache.invalidate(productId);
     }
-} 
\ No newline at end of file
+}
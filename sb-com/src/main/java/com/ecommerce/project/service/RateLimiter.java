@@ -0,0 +1,18 @@
+package com.ecommerce.project.service;
+
+// Token buckets expressed as GCRA (generic cell rate algorithm): a bucket is a single timestamp, the
+// "theoretical arrival time" of the next request, so taking a token is one compare-and-set.
+// A bucket of capacity c refilling every intervalNanos admits c requests at once, then one per interval.
+public interface RateLimiter {
+
+    // Limit derived from a route's capacity and refill rate
+    record Limit(long intervalNanos, long burstNanos) {
+        public static Limit of(int capacity, double refillPerSecond) {
+            long interval = (long) Math.ceil(1_000_000_000L / refillPerSecond);
+            return new Limit(interval, interval * capacity);
+        }
+    }
+
+    // 0 when a token was taken, otherwise nanoseconds until one becomes available
+    long tryAcquire(String key, Limit limit);
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Carts as Redis hashes, shared by every node; mutations are single atomic scripts (HINCRBY and friends)
+@Component
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+public class RedisCartStore implements CartStore {
+
+    @Autowired
+    private RedisService redisService;
+
+    @Override
+    public boolean isLoaded(Long userId) {
+        return redisService.isCartLoaded(userId);
+    }
+
+    @Override
+    public void load(Long userId, Map<Long, Integer> quantities) {
+        redisService.loadCart(userId, quantities);
+    }
+
+    @Override
+    public Map<Long, Integer> getItems(Long userId) {
+        return redisService.getCartItems(userId);
+    }
+
+    @Override
+    public int increment(Long userId, Long productId, int delta) {
+        return redisService.incrementCartItem(userId, productId, delta);
+    }
+
+    @Override
+    public boolean setQuantity(Long userId, Long productId, int quantity) {
+        return redisService.setCartItem(userId, productId, quantity);
+    }
+
+    @Override
+    public boolean remove(Long userId, Long productId) {
+        return redisService.removeCartItem(userId, productId);
+    }
+
+    @Override
+    public void clear(Long userId) {
+        redisService.clearCart(userId);
+    }
+
+    @Override
+    public List<Long> drainDirty(int max) {
+        return redisService.popDirtyCarts(max);
+    }
+
+    @Override
+    public void markDirty(Collection<Long> userIds) {
+        redisService.markCartsDirty(userIds);
+    }
+}
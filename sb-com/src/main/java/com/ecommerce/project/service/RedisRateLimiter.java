@@ -0,0 +1,59 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Buckets shared by every node: the same GCRA step as LocalRateLimiter, run as one Lua script against
+// Redis' clock. If Redis can't be reached, limits fall back to this node's own buckets until it recovers:
+// requests skip Redis entirely while it is down, and one request per redis-retry-interval probes it again.
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "redis")
+public class RedisRateLimiter implements RateLimiter {
+
+    @Autowired
+    private RedisService redisService;
+
+    private final LocalRateLimiter fallback;
+    private final long retryIntervalNanos;
+    private final AtomicBoolean degraded = new AtomicBoolean();
+    private final AtomicLong retryRedisAtNanos = new AtomicLong();
+
+    @Autowired
+    public RedisRateLimiter(RateLimitProperties properties) {
+        this.fallback = new LocalRateLimiter(properties);
+        this.retryIntervalNanos = properties.getRedisRetryInterval().toNanos();
+    }
+
+    @Override
+    public long tryAcquire(String key, Limit limit) {
+        if (degraded.get() && !claimProbe()) {
+            return fallback.tryAcquire(key, limit);
+        }
+        try {
+            long waitNanos = redisService.acquireRateLimitToken(key, limit.intervalNanos(), limit.burstNanos());
+            if (degraded.compareAndSet(true, false)) {
+                System.out.println("Redis rate limiting restored");
+            }
+            return waitNanos;
+        } catch (Exception e) {
+            retryRedisAtNanos.set(System.nanoTime() + retryIntervalNanos);
+            if (degraded.compareAndSet(false, true)) {
+                System.err.println("Redis rate limiting unavailable, using local buckets: " + e.getMessage());
+            }
+            return fallback.tryAcquire(key, limit);
+        }
+    }
+
+    // Once the retry time has passed, exactly one request gets to try Redis; the rest stay local meanwhile
+    private boolean claimProbe() {
+        long retryAt = retryRedisAtNanos.get();
+        return System.nanoTime() - retryAt >= 0
+                && retryRedisAtNanos.compareAndSet(retryAt, System.nanoTime() + retryIntervalNanos);
+    }
+}
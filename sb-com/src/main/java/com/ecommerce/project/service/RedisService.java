@@ -2,14 +2,37 @@ package com.ecommerce.project.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.api.async.RedisKeyAsyncCommands;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
@@ -17,34 +40,115 @@ public class RedisService {
 
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     private static final String PRODUCT_CACHE_PREFIX = "product:";
     private static final String USER_SESSION_PREFIX = "session:";
     private static final String CART_PREFIX = "cart:";
     private static final String SEARCH_CACHE_PREFIX = "search:";
     private static final String CATEGORY_CACHE_PREFIX = "category:";
-    private static final String STATS_PREFIX = "stats:";
+    // Keys requested per SCAN step and removed per UNLINK call
+    private static final int SCAN_BATCH_SIZE = 500;
+    private static final long SCAN_TIMEOUT_SECONDS = 5;
+
+    // Product cache stats are kept in-process as meters (named like the Caffeine tiers' cache.gets) rather
+    // than written back to Redis, so a lookup costs one round-trip and nothing else
+    private Counter productHits;
+    private Counter productMisses;
+    private Counter productInvalidations;
+
+    @PostConstruct
+    public void initMetrics() {
+        productHits = productCacheCounter("cache.gets", "result", "hit");
+        productMisses = productCacheCounter("cache.gets", "result", "miss");
+        productInvalidations = productCacheCounter("cache.invalidations", null, null);
+        Gauge.builder("cache.hit.ratio", this, service -> hitRatio(service.productHits.count(), service.productMisses.count()))
+                .tag("cache", "product.redis")
+                .register(meterRegistry);
+    }
+
+    private Counter productCacheCounter(String name, String tagKey, String tagValue) {
+        Counter.Builder builder = Counter.builder(name).tag("cache", "product.redis");
+        if (tagKey != null) {
+            builder.tag(tagKey, tagValue);
+        }
+        return builder.register(meterRegistry);
+    }
+
+    private static double hitRatio(double hits, double misses) {
+        double lookups = hits + misses;
+        return lookups == 0 ? Double.NaN : hits / lookups;
+    }
 
     // Product caching with enhanced features
     public void cacheProduct(String productId, Object product) {
         try {
             String key = PRODUCT_CACHE_PREFIX + productId;
             redisTemplate.opsForValue().set(key, product, 1, TimeUnit.HOURS);
-            updateCacheStats("product_cache_hits", 1);
         } catch (Exception e) {
             // Log error but don't break application
             System.err.println("Redis cache error: " + e.getMessage());
         }
     }
 
+    // Writes all products in a single pipelined round-trip
+    public void cacheProducts(Map<String, Object> productsById) {
+        if (productsById.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (Map.Entry<String, Object> entry : productsById.entrySet()) {
+                        operations.opsForValue().set(PRODUCT_CACHE_PREFIX + entry.getKey(), entry.getValue(), 1, TimeUnit.HOURS);
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            System.err.println("Redis cache error: " + e.getMessage());
+        }
+    }
+
+    // Resolves many products with one MGET; ids missing from Redis are absent from the result
+    public Map<String, Object> getCachedProducts(Collection<String> productIds) {
+        Map<String, Object> found = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return found;
+        }
+        try {
+            List<String> ids = new ArrayList<>(productIds);
+            List<String> keys = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                keys.add(PRODUCT_CACHE_PREFIX + id);
+            }
+            List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; values != null && i < ids.size(); i++) {
+                if (values.get(i) != null) {
+                    found.put(ids.get(i), values.get(i));
+                }
+            }
+            productHits.increment(found.size());
+            productMisses.increment(ids.size() - found.size());
+        } catch (Exception e) {
+            System.err.println("Redis multi-get error: " + e.getMessage());
+        }
+        return found;
+    }
+
     public Object getCachedProduct(String productId) {
         try {
             String key = PRODUCT_CACHE_PREFIX + productId;
             Object result = redisTemplate.opsForValue().get(key);
             if (result != null) {
-                updateCacheStats("product_cache_hits", 1);
+                productHits.increment();
             } else {
-                updateCacheStats("product_cache_misses", 1);
+                productMisses.increment();
             }
             return result;
         } catch (Exception e) {
@@ -57,7 +161,7 @@ public class RedisService {
         try {
             String key = PRODUCT_CACHE_PREFIX + productId;
             redisTemplate.delete(key);
-            updateCacheStats("product_cache_invalidations", 1);
+            productInvalidations.increment();
         } catch (Exception e) {
             System.err.println("Redis invalidation error: " + e.getMessage());
         }
@@ -112,35 +216,123 @@ public class RedisService {
         }
     }
 
-    // Cart caching with user-specific TTL
-    public void cacheCart(String userId, Object cartData) {
-        try {
-            String key = CART_PREFIX + userId;
-            redisTemplate.opsForValue().set(key, cartData, 2, TimeUnit.HOURS);
-        } catch (Exception e) {
-            System.err.println("Redis cart cache error: " + e.getMessage());
+    // Live carts (write-behind cart mode): one hash per user, productId -> quantity, plus a marker field
+    // recording that the cart was loaded from the database. The hash is the cart's source of truth until
+    // it is flushed, so errors propagate instead of being treated as a cache miss.
+    private static final String CART_LOADED_FIELD = "_loaded";
+    private static final String DIRTY_CARTS_KEY = "carts:dirty";
+    private static final long CART_TTL_SECONDS = TimeUnit.DAYS.toSeconds(7);
+
+    // Each script updates the hash, refreshes its TTL and marks the cart dirty in one atomic step
+    private static final RedisScript<Long> LOAD_CART_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HSETNX', KEYS[1], '" + CART_LOADED_FIELD + "', 1) == 1 then " +
+            "  for i = 2, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) return 1", Long.class);
+    private static final RedisScript<Long> INCREMENT_CART_ITEM_SCRIPT = new DefaultRedisScript<>(
+            "local q = redis.call('HINCRBY', KEYS[1], ARGV[2], ARGV[3]) " +
+            "if q <= 0 then redis.call('HDEL', KEYS[1], ARGV[2]) end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) redis.call('SADD', KEYS[2], ARGV[4]) return q", Long.class);
+    private static final RedisScript<Long> SET_CART_ITEM_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[2]) == 0 then return 0 end " +
+            "redis.call('HSET', KEYS[1], ARGV[2], ARGV[3]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) redis.call('SADD', KEYS[2], ARGV[4]) return 1", Long.class);
+    private static final RedisScript<Long> REMOVE_CART_ITEM_SCRIPT = new DefaultRedisScript<>(
+            "local removed = redis.call('HDEL', KEYS[1], ARGV[2]) " +
+            "if removed == 1 then redis.call('EXPIRE', KEYS[1], ARGV[1]) redis.call('SADD', KEYS[2], ARGV[3]) end " +
+            "return removed", Long.class);
+    private static final RedisScript<Long> CLEAR_CART_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) redis.call('HSET', KEYS[1], '" + CART_LOADED_FIELD + "', 1) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) redis.call('SADD', KEYS[2], ARGV[2]) return 1", Long.class);
+
+    public boolean isCartLoaded(Long userId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(CART_PREFIX + userId));
+    }
+
+    // No-op if another request loaded the cart first
+    public void loadCart(Long userId, Map<Long, Integer> quantities) {
+        List<Object> args = new ArrayList<>(1 + quantities.size() * 2);
+        args.add(CART_TTL_SECONDS);
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            args.add(entry.getKey());
+            args.add(entry.getValue());
         }
+        redisTemplate.execute(LOAD_CART_SCRIPT, List.of(CART_PREFIX + userId), args.toArray());
     }
 
-    public Object getCachedCart(String userId) {
-        try {
-            String key = CART_PREFIX + userId;
-            return redisTemplate.opsForValue().get(key);
-        } catch (Exception e) {
-            System.err.println("Redis cart get error: " + e.getMessage());
-            return null;
+    public Map<Long, Integer> getCartItems(Long userId) {
+        Map<Long, Integer> items = new LinkedHashMap<>();
+        for (Map.Entry<Object, Object> entry : redisTemplate.opsForHash().entries(CART_PREFIX + userId).entrySet()) {
+            if (!CART_LOADED_FIELD.equals(entry.getKey())) {
+                items.put(Long.valueOf(entry.getKey().toString()), ((Number) entry.getValue()).intValue());
+            }
         }
+        return items;
     }
 
-    public void invalidateCartCache(String userId) {
-        try {
-            String key = CART_PREFIX + userId;
-            redisTemplate.delete(key);
-        } catch (Exception e) {
-            System.err.println("Redis cart invalidation error: " + e.getMessage());
+    public int incrementCartItem(Long userId, Long productId, int delta) {
+        Long quantity = redisTemplate.execute(INCREMENT_CART_ITEM_SCRIPT, cartKeys(userId),
+                CART_TTL_SECONDS, productId, delta, userId);
+        return quantity != null ? quantity.intValue() : 0;
+    }
+
+    public boolean setCartItem(Long userId, Long productId, int quantity) {
+        Long updated = redisTemplate.execute(SET_CART_ITEM_SCRIPT, cartKeys(userId),
+                CART_TTL_SECONDS, productId, quantity, userId);
+        return updated != null && updated == 1;
+    }
+
+    public boolean removeCartItem(Long userId, Long productId) {
+        Long removed = redisTemplate.execute(REMOVE_CART_ITEM_SCRIPT, cartKeys(userId),
+                CART_TTL_SECONDS, productId, userId);
+        return removed != null && removed == 1;
+    }
+
+    public void clearCart(Long userId) {
+        redisTemplate.execute(CLEAR_CART_SCRIPT, cartKeys(userId), CART_TTL_SECONDS, userId);
+    }
+
+    public List<Long> popDirtyCarts(int max) {
+        List<Object> popped = redisTemplate.opsForSet().pop(DIRTY_CARTS_KEY, max);
+        List<Long> userIds = new ArrayList<>();
+        if (popped != null) {
+            for (Object userId : popped) {
+                userIds.add(((Number) userId).longValue());
+            }
+        }
+        return userIds;
+    }
+
+    public void markCartsDirty(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            redisTemplate.opsForSet().add(DIRTY_CARTS_KEY, userIds.toArray());
         }
     }
 
+    private static List<String> cartKeys(Long userId) {
+        return List.of(CART_PREFIX + userId, DIRTY_CARTS_KEY);
+    }
+
+    // Rate limit buckets (see RateLimiter): the key holds the bucket's theoretical arrival time in
+    // microseconds of Redis' own clock, so every node agrees on time. Expires once the bucket is full again.
+    private static final String RATE_LIMIT_PREFIX = "ratelimit:";
+    private static final RedisScript<Long> RATE_LIMIT_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') local now = t[1] * 1000000 + t[2] " +
+            "local tat = tonumber(redis.call('GET', KEYS[1]) or now) " +
+            "if tat < now then tat = now end " +
+            "local nextTat = tat + tonumber(ARGV[1]) " +
+            "local allowAt = nextTat - tonumber(ARGV[2]) " +
+            "if allowAt > now then return allowAt - now end " +
+            "redis.call('SET', KEYS[1], nextTat, 'PX', math.ceil((nextTat - now) / 1000)) return 0", Long.class);
+
+    // 0 when a token was taken, otherwise nanoseconds until one is available. Errors propagate so the
+    // caller can fall back to local limits
+    public long acquireRateLimitToken(String key, long intervalNanos, long burstNanos) {
+        Long waitMicros = redisTemplate.execute(RATE_LIMIT_SCRIPT, List.of(RATE_LIMIT_PREFIX + key),
+                Math.max(1, intervalNanos / 1000), Math.max(1, burstNanos / 1000));
+        return waitMicros != null ? waitMicros * 1000 : 0;
+    }
+
     // Search result caching with intelligent TTL
     public void cacheSearchResults(String searchTerm, Object results) {
         try {
@@ -162,24 +354,14 @@ public class RedisService {
         }
     }
 
-    // Cache statistics
-    private void updateCacheStats(String statName, int increment) {
-        try {
-            String key = STATS_PREFIX + statName;
-            redisTemplate.opsForValue().increment(key, increment);
-            // Set TTL for stats
-            redisTemplate.expire(key, 24, TimeUnit.HOURS);
-        } catch (Exception e) {
-            System.err.println("Redis stats error: " + e.getMessage());
-        }
-    }
-
+    // Cache statistics: this node's counts since startup
     public Map<String, Object> getCacheStats() {
         Map<String, Object> stats = new HashMap<>();
         try {
-            stats.put("product_cache_hits", getStatValue("product_cache_hits"));
-            stats.put("product_cache_misses", getStatValue("product_cache_misses"));
-            stats.put("product_cache_invalidations", getStatValue("product_cache_invalidations"));
+            stats.put("product_cache_hits", (long) productHits.count());
+            stats.put("product_cache_misses", (long) productMisses.count());
+            stats.put("product_cache_invalidations", (long) productInvalidations.count());
+            stats.put("product_cache_hit_ratio", hitRatio(productHits.count(), productMisses.count()));
             stats.put("total_keys", redisTemplate.getConnectionFactory().getConnection().dbSize());
             stats.put("redis_status", "connected");
         } catch (Exception e) {
@@ -189,22 +371,25 @@ public class RedisService {
         return stats;
     }
 
-    private Long getStatValue(String statName) {
+    // General cache operations with error handling; false when the write did not reach Redis
+    public boolean set(String key, Object value, long timeout, TimeUnit unit) {
         try {
-            String key = STATS_PREFIX + statName;
-            Object value = redisTemplate.opsForValue().get(key);
-            return value != null ? Long.valueOf(value.toString()) : 0L;
+            redisTemplate.opsForValue().set(key, value, timeout, unit);
+            return true;
         } catch (Exception e) {
-            return 0L;
+            System.err.println("Redis set error: " + e.getMessage());
+            return false;
         }
     }
 
-    // General cache operations with error handling
-    public void set(String key, Object value, long timeout, TimeUnit unit) {
+    // SET NX with a TTL; true when this call created the key. An unreachable Redis counts as success,
+    // so callers fall back to their local guarantees instead of failing
+    public boolean setIfAbsent(String key, Object value, long timeout, TimeUnit unit) {
         try {
-            redisTemplate.opsForValue().set(key, value, timeout, unit);
+            return !Boolean.FALSE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, timeout, unit));
         } catch (Exception e) {
-            System.err.println("Redis set error: " + e.getMessage());
+            System.err.println("Redis setIfAbsent error: " + e.getMessage());
+            return true;
         }
     }
 
@@ -245,16 +430,122 @@ public class RedisService {
         }
     }
 
-    // Get all keys with pattern
+    // Key iteration uses incremental SCAN; KEYS would block the server for the whole keyspace walk
+    public void scanKeys(String pattern, Consumer<String> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_BATCH_SIZE).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                consumer.accept(cursor.next());
+            }
+        }
+    }
+
     public Set<String> getKeysByPattern(String pattern) {
         try {
-            return redisTemplate.keys(pattern);
+            Set<String> keys = new HashSet<>();
+            scanKeys(pattern, keys::add);
+            return keys;
         } catch (Exception e) {
-            System.err.println("Redis keys error: " + e.getMessage());
+            System.err.println("Redis scan error: " + e.getMessage());
             return Set.of();
         }
     }
 
+    public long countKeysByPattern(String pattern) {
+        try {
+            long[] count = {0};
+            scanKeys(pattern, key -> count[0]++);
+            return count[0];
+        } catch (Exception e) {
+            System.err.println("Redis scan error: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // Deletes matching keys in UNLINK batches as the scan goes; memory is reclaimed off the main Redis thread
+    public long deleteKeysByPattern(String pattern) {
+        try {
+            long[] removed = {0};
+            List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+            scanKeys(pattern, key -> {
+                batch.add(key);
+                if (batch.size() >= SCAN_BATCH_SIZE) {
+                    removed[0] += unlink(batch);
+                }
+            });
+            removed[0] += unlink(batch);
+            return removed[0];
+        } catch (Exception e) {
+            System.err.println("Redis delete by pattern error: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private long unlink(List<String> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Long removed = redisTemplate.unlink(batch);
+        batch.clear();
+        return removed != null ? removed : 0;
+    }
+
+    // One SCAN step resumed from a client-held cursor; "0" starts a walk and is returned when it is complete
+    public Map<String, Object> scanKeysPage(String pattern, String cursor, int count) {
+        Map<String, Object> page = new HashMap<>();
+        try {
+            KeyScanCursor<byte[]> result = redisTemplate.execute((RedisCallback<KeyScanCursor<byte[]>>) connection -> {
+                @SuppressWarnings("unchecked")
+                RedisKeyAsyncCommands<byte[], byte[]> commands = (RedisKeyAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+                try {
+                    return commands.scan(io.lettuce.core.ScanCursor.of(cursor), ScanArgs.Builder.matches(pattern).limit(count))
+                            .get(SCAN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+            List<String> keys = new ArrayList<>();
+            for (byte[] key : result.getKeys()) {
+                keys.add(new String(key, StandardCharsets.UTF_8));
+            }
+            page.put("keys", keys);
+            page.put("next_cursor", result.isFinished() ? "0" : result.getCursor());
+            page.put("finished", result.isFinished());
+        } catch (Exception e) {
+            System.err.println("Redis scan error: " + e.getMessage());
+            page.put("keys", List.of());
+            page.put("next_cursor", "0");
+            page.put("finished", true);
+            page.put("error", e.getMessage());
+        }
+        return page;
+    }
+
+    // Pub/sub for cross-node notifications
+    public void publish(String channel, Object message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (Exception e) {
+            System.err.println("Redis publish error: " + e.getMessage());
+        }
+    }
+
+    public void subscribe(String channel, Consumer<Object> handler) {
+        if (listenerContainer == null) {
+            return;
+        }
+        listenerContainer.addMessageListener(
+                (message, pattern) -> handler.accept(redisTemplate.getValueSerializer().deserialize(message.getBody())),
+                new ChannelTopic(channel));
+        try {
+            if (!listenerContainer.isRunning()) {
+                listenerContainer.start();
+            }
+        } catch (Exception e) {
+            System.err.println("Redis subscribe error for channel " + channel + ": " + e.getMessage());
+        }
+    }
+
     // Health check
     public boolean isRedisConnected() {
         try {
@@ -1,68 +1,132 @@
 package com.ecommerce.project.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 @Service
 @ConditionalOnProperty(name = "spring.cache.type", havingValue = "simple")
 public class SimpleCacheService {
 
-    private final Map<String, Object> cache = new ConcurrentHashMap<>();
-    private final Map<String, Long> expirationTimes = new ConcurrentHashMap<>();
+    // Total weight across all entries: plain values weigh 1, collections weigh their size
+    @Value("${app.cache.max-size:1000}")
+    private long maxWeight;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // One record per key: the value together with its own time-to-live
+    private record Entry(Object value, long ttlNanos, int weight) {}
+
+    private Cache<String, Entry> cache;
+
+    @PostConstruct
+    public void init() {
+        // Caffeine evicts by W-TinyLFU (recency window + frequency-admitted main space) and expires
+        // per-entry TTLs on a timer wheel; the scheduler removes expired entries without waiting for a read
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "simple");
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", "simple")
+                .register(meterRegistry);
+    }
 
     // Product caching
     public void cacheProduct(String productId, Object product) {
-        String key = "product:" + productId;
-        cache.put(key, product);
-        expirationTimes.put(key, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        set("product:" + productId, product, 1, TimeUnit.HOURS);
     }
 
     public Object getCachedProduct(String productId) {
-        String key = "product:" + productId;
-        return getFromCache(key);
+        return get("product:" + productId);
     }
 
     public void invalidateProductCache(String productId) {
-        String key = "product:" + productId;
-        cache.remove(key);
-        expirationTimes.remove(key);
+        delete("product:" + productId);
+    }
+
+    public void cacheProducts(Map<String, Object> productsById) {
+        for (Map.Entry<String, Object> entry : productsById.entrySet()) {
+            cacheProduct(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public Map<String, Object> getCachedProducts(Collection<String> productIds) {
+        Map<String, Object> found = new HashMap<>();
+        for (String productId : productIds) {
+            Object product = getCachedProduct(productId);
+            if (product != null) {
+                found.put(productId, product);
+            }
+        }
+        return found;
     }
 
     // Category caching
     public void cacheCategory(String categoryId, Object category) {
-        String key = "category:" + categoryId;
-        cache.put(key, category);
-        expirationTimes.put(key, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2));
+        set("category:" + categoryId, category, 2, TimeUnit.HOURS);
     }
 
     public Object getCachedCategory(String categoryId) {
-        String key = "category:" + categoryId;
-        return getFromCache(key);
+        return get("category:" + categoryId);
     }
 
     // General cache operations
     public void set(String key, Object value, long duration, TimeUnit timeUnit) {
-        cache.put(key, value);
-        expirationTimes.put(key, System.currentTimeMillis() + timeUnit.toMillis(duration));
+        if (value == null) {
+            return;
+        }
+        cache.put(key, new Entry(value, timeUnit.toNanos(duration), weigh(value)));
     }
 
     public Object get(String key) {
-        return getFromCache(key);
+        Entry entry = cache.getIfPresent(key);
+        return entry != null ? entry.value() : null;
     }
 
     public void delete(String key) {
-        cache.remove(key);
-        expirationTimes.remove(key);
+        cache.invalidate(key);
     }
 
     public Set<String> getKeysByPattern(String pattern) {
+        Pattern matcher = globToRegex(pattern);
         Set<String> keys = new HashSet<>();
-        for (String key : cache.keySet()) {
-            if (key.matches(pattern.replace("*", ".*"))) {
+        for (String key : cache.asMap().keySet()) {
+            if (matcher.matcher(key).matches()) {
                 keys.add(key);
             }
         }
@@ -70,8 +134,7 @@ public class SimpleCacheService {
     }
 
     public void clearAllCache() {
-        cache.clear();
-        expirationTimes.clear();
+        cache.invalidateAll();
     }
 
     public boolean isRedisConnected() {
@@ -79,38 +142,53 @@ public class SimpleCacheService {
     }
 
     public Map<String, Object> getCacheStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("cache_type", "simple");
-        stats.put("total_keys", cache.size());
-        stats.put("connected", false);
-        return stats;
-    }
-
-    private Object getFromCache(String key) {
-        Long expirationTime = expirationTimes.get(key);
-        if (expirationTime != null && System.currentTimeMillis() > expirationTime) {
-            // Key has expired, remove it
-            cache.remove(key);
-            expirationTimes.remove(key);
-            return null;
-        }
-        return cache.get(key);
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("cache_type", "simple");
+        result.put("total_keys", cache.estimatedSize());
+        result.put("max_weight", maxWeight);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hit_ratio", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("eviction_weight", stats.evictionWeight());
+        result.put("connected", false);
+        return result;
     }
 
-    // Clean up expired keys periodically
+    // Expired entries are removed by the scheduler; this just runs any pending maintenance now
     public void cleanupExpiredKeys() {
-        long currentTime = System.currentTimeMillis();
-        Set<String> expiredKeys = new HashSet<>();
-        
-        for (Map.Entry<String, Long> entry : expirationTimes.entrySet()) {
-            if (currentTime > entry.getValue()) {
-                expiredKeys.add(entry.getKey());
+        cache.cleanUp();
+    }
+
+    // Redis-style glob ('*' and '?') compiled once per call; everything else matches literally
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
             }
         }
-        
-        for (String key : expiredKeys) {
-            cache.remove(key);
-            expirationTimes.remove(key);
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
         }
+        return 1;
     }
 }
@@ -0,0 +1,179 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Bounded in-process near cache (L1) in front of Redis, or SimpleCacheService when Redis is not configured (L2)
+@Component
+public class TwoTierProductCache implements ProductCache {
+
+    static final String INVALIDATION_CHANNEL = "product-cache-invalidation";
+
+    @Autowired(required = false)
+    private RedisService redisService;
+    @Autowired(required = false)
+    private SimpleCacheService simpleCacheService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.product.l1-max-size:10000}")
+    private long l1MaxSize;
+    // Upper bound on how stale another node's copy can be if an invalidation message is lost
+    @Value("${app.cache.product.l1-ttl:60s}")
+    private Duration l1Ttl;
+
+    private Cache<Long, Product> nearCache;
+
+    @PostConstruct
+    public void init() {
+        nearCache = Caffeine.newBuilder()
+                .maximumSize(l1MaxSize)
+                .expireAfterWrite(l1Ttl)
+                .recordStats()
+                .build();
+        // cache.gets/puts/evictions and size as product.l1, plus the hit ratio as its own gauge
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "product.l1");
+        Gauge.builder("cache.hit.ratio", nearCache, cache -> cache.stats().hitRate())
+                .tag("cache", "product.l1")
+                .register(meterRegistry);
+        if (redisService != null) {
+            redisService.subscribe(INVALIDATION_CHANNEL, message -> {
+                if (message != null) {
+                    nearCache.invalidate(Long.valueOf(message.toString()));
+                }
+            });
+        }
+        System.out.println("Product cache initialized. L1 max size: " + l1MaxSize + ", L2: " + remoteTier());
+    }
+
+    @Override
+    public Product get(Long productId) {
+        Product product = nearCache.getIfPresent(productId);
+        if (product != null) {
+            return product;
+        }
+        Object cached = null;
+        if (redisService != null) {
+            cached = redisService.getCachedProduct(productId.toString());
+        } else if (simpleCacheService != null) {
+            cached = simpleCacheService.getCachedProduct(productId.toString());
+        }
+        if (cached instanceof Product remote) {
+            nearCache.put(productId, remote);
+            return remote;
+        }
+        return null;
+    }
+
+    // L1 first, then one batched L2 lookup (a single MGET on Redis) for everything L1 didn't have
+    @Override
+    public Map<Long, Product> getAll(Collection<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        Map<Long, Product> found = new HashMap<>(nearCache.getAllPresent(ids));
+        List<String> remoteIds = new ArrayList<>();
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                remoteIds.add(id.toString());
+            }
+        }
+        if (remoteIds.isEmpty()) {
+            return found;
+        }
+        Map<String, Object> remote = Map.of();
+        if (redisService != null) {
+            remote = redisService.getCachedProducts(remoteIds);
+        } else if (simpleCacheService != null) {
+            remote = simpleCacheService.getCachedProducts(remoteIds);
+        }
+        for (Object cached : remote.values()) {
+            if (cached instanceof Product product) {
+                nearCache.put(product.getProductId(), product);
+                found.put(product.getProductId(), product);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(Collection<Product> products) {
+        Map<String, Object> byId = new HashMap<>();
+        for (Product product : products) {
+            if (product != null && product.getProductId() != null) {
+                nearCache.put(product.getProductId(), product);
+                byId.put(product.getProductId().toString(), product);
+            }
+        }
+        if (redisService != null) {
+            redisService.cacheProducts(byId);
+        } else if (simpleCacheService != null) {
+            simpleCacheService.cacheProducts(byId);
+        }
+    }
+
+    @Override
+    public void put(Product product) {
+        if (product == null || product.getProductId() == null) {
+            return;
+        }
+        nearCache.put(product.getProductId(), product);
+        if (redisService != null) {
+            redisService.cacheProduct(product.getProductId().toString(), product);
+        } else if (simpleCacheService != null) {
+            simpleCacheService.cacheProduct(product.getProductId().toString(), product);
+        }
+    }
+
+    @Override
+    public void invalidate(Long productId) {
+        nearCache.invalidate(productId);
+        if (redisService != null) {
+            redisService.invalidateProductCache(productId.toString());
+            // Other nodes drop their near-cache copy when they see this
+            redisService.publish(INVALIDATION_CHANNEL, productId.toString());
+        } else if (simpleCacheService != null) {
+            simpleCacheService.invalidateProductCache(productId.toString());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        CacheStats stats = nearCache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("l1_size", nearCache.estimatedSize());
+        result.put("l1_max_size", l1MaxSize);
+        result.put("l1_hits", stats.hitCount());
+        result.put("l1_misses", stats.missCount());
+        result.put("l1_hit_ratio", stats.hitRate());
+        result.put("l1_evictions", stats.evictionCount());
+        result.put("l2", remoteTier());
+        if (redisService == null && simpleCacheService != null) {
+            result.put("l2_stats", simpleCacheService.getCacheStats());
+        }
+        return result;
+    }
+
+    private String remoteTier() {
+        if (redisService != null) {
+            return "redis";
+        }
+        return simpleCacheService != null ? "simple" : "none";
+    }
+}
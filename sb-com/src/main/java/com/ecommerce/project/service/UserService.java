@@ -2,10 +2,12 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.model.User;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
     User register(User user);
-    Optional<User> login(String username, String password);
+    CompletableFuture<Optional<User>> login(String username, String password);
     Optional<User> getByUsername(String username);
+    Optional<User> getById(Long userId);
     void updatePassword(String username, String newPassword);
 } 
\ No newline at end of file
@@ -2,41 +2,122 @@ package com.ecommerce.project.service;
 
 import com.ecommerce.project.model.User;
 import com.ecommerce.project.repositories.UserRepository;
+import com.ecommerce.project.security.VerifiedTokenCache;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     @Override
     public User register(User user) {
-        if (userRepository.findByUsername(user.getUsername()).isPresent()) {
+        if (user.getRole() == User.Role.SELLER && (user.getPanNumber() == null || user.getPanNumber().isEmpty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "PAN number is required for sellers");
+        }
+        requirePassword(user.getPassword());
+        // Index probes on the unique columns; they only spare a duplicate signup the BCrypt cost.
+        // The unique constraints are what actually guarantee uniqueness, including under races.
+        if (userRepository.existsByUsername(user.getUsername())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Username already exists");
         }
-        if (userRepository.findAll().stream().anyMatch(u -> u.getEmail().equals(user.getEmail()))) {
+        if (user.getEmail() != null && userRepository.existsByEmail(user.getEmail())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
         }
-        if (user.getRole() == User.Role.SELLER && (user.getPanNumber() == null || user.getPanNumber().isEmpty())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "PAN number is required for sellers");
+        user.setPassword(passwordHashingService.encode(user.getPassword()).join());
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, conflictReason(e));
+        }
+    }
+
+    // Checked before hashing: the encoder's own IllegalArgumentException would reach join() as a CompletionException
+    private static void requirePassword(String password) {
+        if (password == null || password.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password is required");
+        }
+    }
+
+    // Drivers report the constraint with varying schema prefixes and case, e.g. PUBLIC.UK_USERS_EMAIL_INDEX_4 on H2.
+    // Databases whose constraints still have generated names fall back to the column in the driver's message,
+    // e.g. "Key (email)=(...) already exists" on PostgreSQL or "PUBLIC.USERS(EMAIL NULLS FIRST)" on H2.
+    static String conflictReason(DataIntegrityViolationException e) {
+        String constraint = violatedConstraint(e);
+        if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+            return "Email already exists";
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        if (constraint.contains(User.USERNAME_CONSTRAINT)) {
+            return "Username already exists";
+        }
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains("(email")) {
+            return "Email already exists";
+        }
+        if (message.contains("(username")) {
+            return "Username already exists";
+        }
+        return "Username or email already exists";
     }
 
+    private static String violatedConstraint(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        return "";
+    }
+
+    // Completes on the hashing pool, so the caller's thread isn't held for the BCrypt check
     @Override
-    public Optional<User> login(String username, String password) {
+    public CompletableFuture<Optional<User>> login(String username, String password) {
         Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isPresent() && passwordEncoder.matches(password, userOpt.get().getPassword())) {
-            return userOpt;
+        if (userOpt.isEmpty() || password == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        User user = userOpt.get();
+        return passwordHashingService.matches(password, user.getPassword())
+                .thenApply(matched -> {
+                    if (!matched) {
+                        return Optional.empty();
+                    }
+                    rehashIfNeeded(user, password);
+                    return Optional.of(user);
+                });
+    }
+
+    // Brings hashes made under an older cost factor up to the current one while the raw password
+    // is at hand. Best effort: skipped when the hashing pool is busy, retried on a later login.
+    private void rehashIfNeeded(User user, String password) {
+        String oldHash = user.getPassword();
+        if (!passwordHashingService.needsRehash(oldHash)) {
+            return;
+        }
+        try {
+            passwordHashingService.encode(password)
+                    .thenAccept(newHash -> userRepository.replacePasswordHash(user.getUserId(), oldHash, newHash))
+                    .exceptionally(e -> {
+                        System.err.println("Password rehash failed for user " + user.getUserId() + ": " + e.getMessage());
+                        return null;
+                    });
+        } catch (PasswordHashingService.HashingBusyException e) {
+            // Try again next login
         }
-        return Optional.empty();
     }
 
     @Override
@@ -44,13 +125,23 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByUsername(username);
     }
 
+    @Override
+    public Optional<User> getById(Long userId) {
+        return userRepository.findById(userId);
+    }
+
     @Override
     public void updatePassword(String username, String newPassword) {
+        requirePassword(newPassword);
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            user.setPassword(passwordEncoder.encode(newPassword));
+            user.setPassword(passwordHashingService.encode(newPassword).join());
+            // Millisecond precision, matching the stamp tokens carry
+            user.setPasswordChangedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
             userRepository.save(user);
+            // Outstanding tokens must be re-verified, which they now fail (their password stamp is stale)
+            verifiedTokenCache.invalidateUser(username);
         } else {
             throw new org.springframework.web.server.ResponseStatusException(org.springframework.http.HttpStatus.NOT_FOUND, "User not found");
         }
@@ -0,0 +1,182 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.*;
+import com.ecommerce.project.repositories.*;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cart mutations go to the CartStore (a Redis hash, or a local map) and return without touching the
+// database; dirty carts are written to carts/cart_items in batches by flush()
+@Service
+@ConditionalOnProperty(name = "app.cart.write-behind.enabled", havingValue = "true")
+public class WriteBehindCartService implements CartService {
+    private static final int FLUSH_BATCH_SIZE = 200;
+
+    @Autowired
+    private CartStore cartStore;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
+    public Cart getCartByUserId(Long userId) {
+        ensureLoaded(userId);
+        Map<Long, Integer> quantities = cartStore.getItems(userId);
+        User user = new User();
+        user.setUserId(userId);
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart.setItems(new ArrayList<>(quantities.size()));
+        // Product details come from the product cache, with one query for any misses
+        for (Product product : productService.getProductsByIds(new ArrayList<>(quantities.keySet()))) {
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(quantities.get(product.getProductId()));
+            cart.getItems().add(item);
+        }
+        return cart;
+    }
+
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
+    public Cart addItemToCart(Long userId, Long productId, int quantity) {
+        ensureLoaded(userId);
+        productService.getProductById(productId);
+        cartStore.increment(userId, productId, quantity);
+        return getCartByUserId(userId);
+    }
+
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
+    public Cart updateItemQuantity(Long userId, Long productId, int quantity) {
+        ensureLoaded(userId);
+        if (!cartStore.setQuantity(userId, productId, quantity)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cart item not found");
+        }
+        return getCartByUserId(userId);
+    }
+
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
+    public Cart removeItemFromCart(Long userId, Long productId) {
+        ensureLoaded(userId);
+        if (!cartStore.remove(userId, productId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cart item not found");
+        }
+        return getCartByUserId(userId);
+    }
+
+    // Inside a transaction (checkout) the cart is only emptied once the order has committed
+    @Override
+    @Timed(value = "service.calls", extraTags = {"service", "cart"})
+    public void clearCart(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cartStore.clear(userId);
+                }
+            });
+        } else {
+            cartStore.clear(userId);
+        }
+    }
+
+    // Draining happens before the carts are read, so a mutation racing with a flush marks the cart
+    // dirty again and is picked up by the next one
+    @Scheduled(fixedDelayString = "${app.cart.write-behind.flush-interval:5s}")
+    @PreDestroy
+    public void flush() {
+        List<Long> batch;
+        do {
+            batch = cartStore.drainDirty(FLUSH_BATCH_SIZE);
+            if (batch.isEmpty() || !persistBatch(batch)) {
+                return;
+            }
+        } while (batch.size() == FLUSH_BATCH_SIZE);
+    }
+
+    // One transaction per batch; on failure the carts are marked dirty again for the next run
+    private boolean persistBatch(List<Long> userIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Long userId : userIds) {
+                    persist(userId, cartStore.getItems(userId));
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            cartStore.markDirty(userIds);
+            System.err.println("Cart flush failed for " + userIds.size() + " carts: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // First access after a restart (or eviction) seeds the store from the persisted cart
+    private void ensureLoaded(Long userId) {
+        if (cartStore.isLoaded(userId)) {
+            return;
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        Cart cart = cartRepository.findWithItemsByUserId(userId).orElse(null);
+        if (cart != null) {
+            for (CartItem item : cart.getItems()) {
+                quantities.put(item.getProduct().getProductId(), item.getQuantity());
+            }
+        } else if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        cartStore.load(userId, quantities);
+    }
+
+    // Brings the database cart in line with the store: quantity updates, new items and orphan removals
+    // are all flushed together as JDBC batches when the transaction commits
+    private void persist(Long userId, Map<Long, Integer> quantities) {
+        Cart cart = cartRepository.findWithItemsByUserId(userId).orElseGet(() -> {
+            Cart created = new Cart();
+            created.setUser(userRepository.getReferenceById(userId));
+            created.setItems(new ArrayList<>());
+            return created;
+        });
+        Map<Long, CartItem> existing = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            existing.put(item.getProduct().getProductId(), item);
+        }
+        cart.getItems().removeIf(item -> !quantities.containsKey(item.getProduct().getProductId()));
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            CartItem item = existing.get(entry.getKey());
+            if (item == null) {
+                item = new CartItem();
+                item.setCart(cart);
+                item.setProduct(productRepository.getReferenceById(entry.getKey()));
+                cart.getItems().add(item);
+            }
+            item.setQuantity(entry.getValue());
+        }
+        cartRepository.save(cart);
+    }
+}
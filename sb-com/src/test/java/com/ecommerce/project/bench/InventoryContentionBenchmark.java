@@ -0,0 +1,112 @@
+package com.ecommerce.project.bench;
+
+import com.ecommerce.project.SbComApplication;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.service.InventoryService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+// Single-unit stock reservations from concurrent buyers: every thread on one hot SKU, the same load spread
+// over 64 SKUs, and a sold-out SKU where every reservation is turned away. Stock in the first two cases is
+// far above what a run can sell, so they measure the row lock on the conditional UPDATE rather than shortfalls.
+//
+//   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.ecommerce.project.bench.InventoryContentionBenchmark -Dexec.args="16 5"
+//
+// Arguments: threads (default 16), measured seconds per case (default 5).
+public class InventoryContentionBenchmark {
+
+    private static final int PLENTY = 1_000_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SbComApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:inventorybench",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--app.rate-limit.enabled=false",
+                        "--logging.level.root=WARN");
+        try {
+            InventoryService inventory = context.getBean(InventoryService.class);
+            ProductRepository products = context.getBean(ProductRepository.class);
+            Product hot = product(products, "Hot SKU", PLENTY);
+            List<Product> spread = IntStream.range(0, 64).mapToObj(i -> product(products, "Spread SKU " + i, PLENTY)).toList();
+            Product soldOut = product(products, "Sold-out SKU", 0);
+
+            System.out.printf("%d threads, %ds per case%n", threads, seconds);
+            System.out.printf("%-10s %12s %12s %14s %10s%n", "case", "reserved", "rejected", "attempts/s", "us/op");
+            report("1 SKU", inventory, threads, seconds, () -> hot);
+            report("64 SKUs", inventory, threads, seconds, () -> spread.get(ThreadLocalRandom.current().nextInt(spread.size())));
+            report("sold out", inventory, threads, seconds, () -> soldOut);
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    private static Product product(ProductRepository products, String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(99);
+        product.setStock(stock);
+        return products.save(product);
+    }
+
+    private interface Pick {
+        Product next();
+    }
+
+    private static void report(String name, InventoryService inventory, int threads, int seconds, Pick pick) throws Exception {
+        run(inventory, threads, 1, pick);
+        long[] outcome = run(inventory, threads, seconds, pick);
+        long attempts = outcome[0] + outcome[1];
+        double perSecond = attempts / (double) seconds;
+        System.out.printf("%-10s %,12d %,12d %,14.0f %10.1f%n", name, outcome[0], outcome[1], perSecond,
+                threads * 1e6 / perSecond);
+    }
+
+    // {reserved, rejected}
+    private static long[] run(InventoryService inventory, int threads, int seconds, Pick pick) throws Exception {
+        LongAdder reserved = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    while (System.nanoTime() < deadline[0]) {
+                        try {
+                            inventory.reserve(List.of(InventoryService.StockLine.of(pick.next(), 1)));
+                            reserved.increment();
+                        } catch (ResponseStatusException e) {
+                            rejected.increment();
+                        }
+                    }
+                });
+            }
+            deadline[0] = System.nanoTime() + seconds * 1_000_000_000L;
+            start.countDown();
+        }
+        return new long[] {reserved.sum(), rejected.sum()};
+    }
+}
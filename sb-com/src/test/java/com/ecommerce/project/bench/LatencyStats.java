@@ -0,0 +1,42 @@
+package com.ecommerce.project.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Latencies and failures recorded by many client threads. Everything is read back through the
+// synchronized list and the atomic counter, so a report taken after the clients finish sees every sample.
+final class LatencyStats {
+    private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong errors = new AtomicLong();
+
+    void record(long nanos, boolean ok) {
+        latencies.add(nanos);
+        if (!ok) {
+            errors.incrementAndGet();
+        }
+    }
+
+    int count() {
+        return latencies.size();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    // Milliseconds; p = 100 is the maximum
+    double percentile(double p) {
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1_000_000.0;
+    }
+}
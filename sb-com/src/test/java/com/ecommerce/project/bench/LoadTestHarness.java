@@ -0,0 +1,178 @@
+package com.ecommerce.project.bench;
+
+import com.ecommerce.project.SbComApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Starts the application once on platform threads and once on virtual threads, drives the same mixed
+// product/cart/order workload against each and prints throughput and latency percentiles per endpoint.
+//
+//   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.ecommerce.project.bench.LoadTestHarness -Dexec.args="400 15"
+//
+// Arguments: concurrent clients (default 400), measured seconds per mode (default 15).
+public class LoadTestHarness {
+
+    private static final int USERS = 20;
+    private static final int WARM_UP_SECONDS = 5;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private String baseUrl;
+    private final List<String> tokens = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+
+        Map<String, Map<String, LatencyStats>> results = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(SbComApplication.class)
+                    // Command-line arguments: unlike builder default properties they override application.properties
+                    .run(
+                            "--server.port=0",
+                            "--spring.threads.virtual.enabled=" + virtual,
+                            "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode,
+                            "--spring.jpa.show-sql=false",
+                            "--spring.h2.console.enabled=false",
+                            "--app.rate-limit.enabled=false",
+                            "--logging.level.root=WARN");
+            try {
+                requireThreadMode(context, virtual);
+                LoadTestHarness harness = new LoadTestHarness();
+                harness.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                harness.setUp();
+                harness.run(clients, WARM_UP_SECONDS);
+                results.put(mode, harness.run(clients, seconds));
+            } finally {
+                context.close();
+            }
+        }
+
+        System.out.printf("%n%d clients, %ds per mode%n", clients, seconds);
+        System.out.printf("%-9s %-14s %10s %8s %9s %9s %9s%n", "mode", "endpoint", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Map<String, LatencyStats>> mode : results.entrySet()) {
+            for (Map.Entry<String, LatencyStats> endpoint : mode.getValue().entrySet()) {
+                LatencyStats stats = endpoint.getValue();
+                System.out.printf("%-9s %-14s %10.0f %8d %9.1f %9.1f %9.1f%n", mode.getKey(), endpoint.getKey(),
+                        stats.count() / (double) seconds, stats.errors(),
+                        stats.percentile(50), stats.percentile(99), stats.percentile(100));
+            }
+        }
+        System.exit(0);
+    }
+
+    // Guards against the overrides silently losing to application.properties, which once made both runs use platform threads
+    private static void requireThreadMode(ConfigurableApplicationContext context, boolean virtual) {
+        WebServer webServer = ((WebServerApplicationContext) context).getWebServer();
+        Executor executor = ((TomcatWebServer) webServer).getTomcat().getConnector().getProtocolHandler().getExecutor();
+        if ((executor instanceof VirtualThreadExecutor) != virtual) {
+            throw new IllegalStateException("Expected " + (virtual ? "virtual" : "platform")
+                    + " request threads but Tomcat uses " + executor.getClass().getName());
+        }
+    }
+
+    private void setUp() throws Exception {
+        for (JsonNode product : MAPPER.readTree(send("GET", "/api/products", null, null).body())) {
+            productIds.add(product.get("productId").asLong());
+        }
+        for (int i = 0; i < USERS; i++) {
+            String username = "load" + i;
+            send("POST", "/api/users/register", null, "{\"username\":\"" + username + "\",\"email\":\"" + username
+                    + "@example.com\",\"password\":\"password\",\"role\":\"CUSTOMER\"}");
+            String token = MAPPER.readTree(send("POST", "/api/users/login", null,
+                    "{\"username\":\"" + username + "\",\"password\":\"password\"}").body()).get("token").asText();
+            tokens.add(token);
+            userIds.add(MAPPER.readTree(send("GET", "/api/users/" + username, token, null).body()).get("userId").asLong());
+        }
+    }
+
+    // Mixed workload: 60% product reads, 25% cart reads, 10% cart adds, 5% checkouts
+    private Map<String, LatencyStats> run(int clients, int seconds) throws InterruptedException {
+        Map<String, LatencyStats> stats = new ConcurrentHashMap<>();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int user = c % USERS;
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        int roll = random.nextInt(100);
+                        long productId = productIds.get(random.nextInt(productIds.size()));
+                        String endpoint;
+                        String method;
+                        String path;
+                        if (roll < 60) {
+                            endpoint = "product";
+                            method = "GET";
+                            path = "/api/products/" + productId;
+                        } else if (roll < 85) {
+                            endpoint = "cart";
+                            method = "GET";
+                            path = "/api/cart/" + userIds.get(user);
+                        } else if (roll < 95) {
+                            endpoint = "cart add";
+                            method = "POST";
+                            path = "/api/cart/" + userIds.get(user) + "/add?productId=" + productId + "&quantity=1";
+                        } else {
+                            endpoint = "order";
+                            method = "POST";
+                            path = "/api/orders/place/" + userIds.get(user);
+                        }
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = send(method, path, tokens.get(user), null).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        // An empty cart (another client of the same user just checked out) is not a server error
+                        boolean ok = status >= 200 && status < 300 || (endpoint.equals("order") && status == 400);
+                        stats.computeIfAbsent(endpoint, k -> new LatencyStats()).record(System.nanoTime() - start, ok);
+                    }
+                });
+            }
+        }
+        return new java.util.TreeMap<>(stats);
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, json != null ? HttpRequest.BodyPublishers.ofString(json) : HttpRequest.BodyPublishers.noBody());
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.project.bench;
+
+import com.ecommerce.project.config.RateLimitFilter;
+import com.ecommerce.project.config.RateLimitProperties;
+import com.ecommerce.project.service.LocalRateLimiter;
+import com.ecommerce.project.service.RateLimiter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-request cost of rate limiting, without a server: the limiter on its own (one hot bucket shared by
+// every thread, and many independent buckets) and the whole filter on a limited and an unlimited route.
+// Limits are set high enough that every call is admitted, so this measures the admit path.
+//
+//   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.ecommerce.project.bench.RateLimiterBenchmark -Dexec.args="4 5"
+//
+// Arguments: threads (default: available processors), measured seconds per case (default 5).
+public class RateLimiterBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern("/api/products/search");
+        route.setMethods(List.of("GET"));
+        route.setCapacity(Integer.MAX_VALUE / 2);
+        route.setRefillPerSecond(1e9);
+        properties.setRoutes(List.of(route));
+        LocalRateLimiter limiter = new LocalRateLimiter(properties);
+        RateLimiter.Limit limit = RateLimiter.Limit.of(route.getCapacity(), route.getRefillPerSecond());
+        RateLimitFilter filter = new RateLimitFilter(properties);
+        ReflectionTestUtils.setField(filter, "rateLimiter", limiter);
+
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "r0:a10.0.0." + i;
+        }
+
+        System.out.printf("%d threads, %ds per case%n", threads, seconds);
+        System.out.printf("%-22s %14s %10s%n", "case", "ops/s", "ns/op");
+        report("limiter, 1 bucket", threads, seconds, (thread, i) -> limiter.tryAcquire("r0:hot", limit));
+        report("limiter, " + KEYS + " buckets", threads, seconds, (thread, i) -> limiter.tryAcquire(keys[(int) (i % KEYS)], limit));
+        report("filter, limited", threads, seconds, (thread, i) -> filter(filter, "/api/products/search", i));
+        report("filter, unlimited", threads, seconds, (thread, i) -> filter(filter, "/api/products/42", i));
+        System.exit(0);
+    }
+
+    private static void filter(RateLimitFilter filter, String path, long i) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr("10.0.0." + (i % KEYS));
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private interface Operation {
+        void run(int thread, long iteration) throws Exception;
+    }
+
+    private static void report(String name, int threads, int seconds, Operation operation) throws Exception {
+        run(threads, 1, operation);
+        long ops = run(threads, seconds, operation);
+        double perSecond = ops / (double) seconds;
+        System.out.printf("%-22s %,14.0f %10.1f%n", name, perSecond, threads * 1e9 / perSecond);
+    }
+
+    private static long run(int threads, int seconds, Operation operation) throws Exception {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                        long i = thread;
+                        while (System.nanoTime() < deadline[0]) {
+                            for (int batch = 0; batch < 256; batch++, i += threads) {
+                                operation.run(thread, i);
+                            }
+                            ops.add(256);
+                        }
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            deadline[0] = System.nanoTime() + seconds * 1_000_000_000L;
+            start.countDown();
+        }
+        return ops.sum();
+    }
+}
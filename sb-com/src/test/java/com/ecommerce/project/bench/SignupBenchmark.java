@@ -0,0 +1,133 @@
+package com.ecommerce.project.bench;
+
+import com.ecommerce.project.SbComApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Seeds the users table with a large population, then drives POST /api/users/register from concurrent
+// clients and prints signup throughput and latency. One signup in ten reuses a seeded email, so the
+// 409 path is measured alongside successful signups. BCrypt runs at cost 4 here so the numbers reflect
+// the uniqueness checks and the insert rather than hashing.
+//
+//   MAVEN_OPTS=-Xmx4g mvn -q test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.ecommerce.project.bench.SignupBenchmark -Dexec.args="1000000 16 15"
+//
+// Arguments: seeded users (default 1,000,000), concurrent clients (default 16), measured seconds (default 15).
+public class SignupBenchmark {
+
+    private static final int SEED_BATCH = 10_000;
+    private static final int WARM_UP_SECONDS = 5;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong sequence = new AtomicLong();
+    private String baseUrl;
+    private int seededUsers;
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 15;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SbComApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:signupbench",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--app.rate-limit.enabled=false",
+                        "--app.security.bcrypt.strength=4",
+                        "--app.security.hashing.queue-capacity=" + Math.max(32, clients * 2),
+                        "--logging.level.root=WARN");
+        try {
+            SignupBenchmark benchmark = new SignupBenchmark();
+            benchmark.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            benchmark.seed(context.getBean(JdbcTemplate.class), users);
+            benchmark.run(clients, WARM_UP_SECONDS);
+            LatencyStats[] stats = benchmark.run(clients, seconds);
+
+            System.out.printf("%n%,d seeded users, %d clients, %ds%n", users, clients, seconds);
+            System.out.printf("%-10s %10s %8s %9s %9s %9s%n", "result", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+            String[] labels = {"created", "conflict"};
+            for (int i = 0; i < stats.length; i++) {
+                System.out.printf("%-10s %10.0f %8d %9.1f %9.1f %9.1f%n", labels[i], stats[i].count() / (double) seconds,
+                        stats[i].errors(), stats[i].percentile(50), stats[i].percentile(99), stats[i].percentile(100));
+            }
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    // Plain JDBC batches: going through register() would spend minutes hashing a million passwords
+    private void seed(JdbcTemplate jdbc, int users) {
+        String hash = new BCryptPasswordEncoder(4).encode("password");
+        long start = System.nanoTime();
+        for (int from = 0; from < users; from += SEED_BATCH) {
+            List<Object[]> rows = new ArrayList<>(SEED_BATCH);
+            for (int i = from; i < Math.min(users, from + SEED_BATCH); i++) {
+                rows.add(new Object[]{"seed" + i, "seed" + i + "@example.com", hash, "CUSTOMER"});
+            }
+            jdbc.batchUpdate("INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, ?)", rows);
+        }
+        seededUsers = users;
+        System.out.printf("Seeded %,d users in %.1fs%n", users, (System.nanoTime() - start) / 1e9);
+    }
+
+    // stats[0]: fresh signups (expect 201), stats[1]: signups reusing a seeded email (expect 409)
+    private LatencyStats[] run(int clients, int seconds) throws InterruptedException {
+        LatencyStats[] stats = {new LatencyStats(), new LatencyStats()};
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        boolean duplicate = seededUsers > 0 && random.nextInt(10) == 0;
+                        String username = "bench" + sequence.incrementAndGet();
+                        String email = duplicate
+                                ? "seed" + random.nextInt(seededUsers) + "@example.com"
+                                : username + "@example.com";
+                        String json = "{\"username\":\"" + username + "\",\"email\":\"" + email
+                                + "\",\"password\":\"password\",\"role\":\"CUSTOMER\"}";
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = register(json).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        int expected = duplicate ? 409 : 201;
+                        stats[duplicate ? 1 : 0].record(System.nanoTime() - start, status == expected);
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private HttpResponse<String> register(String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/register"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.project.security;
+
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class JwtAuthenticationFilterTests {
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void principalIsBuiltFromTheTokenClaims() throws Exception {
+        User user = newUser("claims", User.Role.SELLER);
+
+        Authentication authentication = authenticate(jwtUtil.generateToken(user));
+
+        assertEquals(new AuthenticatedUser(user.getUserId(), user.getUsername(), User.Role.SELLER),
+                authentication.getPrincipal());
+        assertEquals(List.of("ROLE_SELLER"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void tokenOfADeletedUserIsRejected() throws Exception {
+        User user = newUser("deleted", User.Role.CUSTOMER);
+        String token = jwtUtil.generateToken(user);
+
+        userRepository.delete(user);
+
+        assertNull(authenticate(token));
+    }
+
+    // The token carries a password stamp, but not the current one
+    @Test
+    void tokenStampedWithAnOlderPasswordChangeIsRejected() throws Exception {
+        User user = newUser("restamped", User.Role.CUSTOMER);
+        user.setPasswordChangedAt(Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.MILLIS));
+        user = userRepository.save(user);
+        String token = jwtUtil.generateToken(user);
+
+        user.setPasswordChangedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        userRepository.save(user);
+
+        assertNull(authenticate(token));
+    }
+
+    // Issued before the uid and role claims existed: resolved through the user row, and revoked the same way
+    @Test
+    void legacyTokenWithoutUserIdClaimStillResolvesUntilThePasswordChanges() throws Exception {
+        User user = newUser("legacy", User.Role.CUSTOMER);
+        String legacy = ReflectionTestUtils.invokeMethod(jwtUtil, "createToken", Map.of(), user.getUsername());
+
+        Authentication authentication = authenticate(legacy);
+        assertEquals(AuthenticatedUser.of(user), authentication.getPrincipal());
+
+        user.setPasswordChangedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        userRepository.save(user);
+        String legacyAfterChange = ReflectionTestUtils.invokeMethod(jwtUtil, "createToken",
+                Map.of("marker", System.nanoTime()), user.getUsername());
+        assertNull(authenticate(legacyAfterChange));
+    }
+
+    @Test
+    void tamperedTokenIsRejected() throws Exception {
+        String token = jwtUtil.generateToken(newUser("tampered", User.Role.CUSTOMER));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(authenticate(tampered));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cart");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private User newUser(String prefix, User.Role role) {
+        User user = new User();
+        user.setUsername(prefix + "-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
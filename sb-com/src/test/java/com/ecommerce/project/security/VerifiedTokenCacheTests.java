@@ -0,0 +1,109 @@
+package com.ecommerce.project.security;
+
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repositories.UserRepository;
+import com.ecommerce.project.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class VerifiedTokenCacheTests {
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void passwordChangeEvictsCachedTokensAndRejectsThem() throws Exception {
+        User user = newCustomer("cached");
+        String token = jwtUtil.generateToken(user);
+        assertNotNull(authenticate(token));
+        assertNotNull(verifiedTokenCache.get(token));
+
+        userService.updatePassword(user.getUsername(), "changed");
+
+        assertNull(verifiedTokenCache.get(token));
+        assertNull(authenticate(token));
+        // A token issued after the change carries the new stamp and is accepted
+        String fresh = jwtUtil.generateToken(userRepository.findById(user.getUserId()).orElseThrow());
+        assertNotNull(authenticate(fresh));
+    }
+
+    // The change is only visible through the database here, as it would be on another node
+    @Test
+    void tokenIssuedBeforePasswordChangeIsRejected() throws Exception {
+        User user = newCustomer("stale");
+        String token = jwtUtil.generateToken(user);
+
+        user.setPasswordChangedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        userRepository.save(user);
+
+        assertNull(authenticate(token));
+        assertNull(verifiedTokenCache.get(token));
+    }
+
+    @Test
+    void invalidateUserOnlyEvictsThatUsersTokens() {
+        verifiedTokenCache.put("token-a", verified("alice-" + System.nanoTime(), 60_000));
+        String bob = "bob-" + System.nanoTime();
+        verifiedTokenCache.put("token-b", verified(bob, 60_000));
+
+        verifiedTokenCache.invalidateUser(bob);
+
+        assertNotNull(verifiedTokenCache.get("token-a"));
+        assertNull(verifiedTokenCache.get("token-b"));
+    }
+
+    @Test
+    void entryDoesNotOutliveTheToken() {
+        verifiedTokenCache.put("expired-token", verified("carol-" + System.nanoTime(), -1_000));
+
+        assertNull(verifiedTokenCache.get("expired-token"));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cart");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static VerifiedTokenCache.VerifiedToken verified(String username, long expiresInMillis) {
+        return new VerifiedTokenCache.VerifiedToken(new AuthenticatedUser(1L, username, User.Role.CUSTOMER),
+                List.of(), System.currentTimeMillis() + expiresInMillis);
+    }
+
+    private User newCustomer(String prefix) {
+        User user = new User();
+        user.setUsername(prefix + "-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.CUSTOMER);
+        return userRepository.save(user);
+    }
+}
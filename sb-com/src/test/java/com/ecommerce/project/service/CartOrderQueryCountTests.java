@@ -0,0 +1,109 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.dto.CartView;
+import com.ecommerce.project.dto.OrderView;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CartOrderQueryCountTests {
+
+    private static final int ITEM_COUNT = 5;
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CheckoutPipeline checkoutPipeline;
+
+    private Statistics statistics;
+    private Long userId;
+    private List<Product> products;
+    private Object pipelineExecutor;
+
+    @BeforeEach
+    void setUp() {
+        // Keep the checkout pipeline's own queries out of the counts: queued stages are simply dropped
+        pipelineExecutor = ReflectionTestUtils.getField(checkoutPipeline, "checkoutExecutor");
+        ReflectionTestUtils.setField(checkoutPipeline, "checkoutExecutor", (Executor) task -> {});
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userId = OrderTestSupport.newCustomer(userRepository, "querycount").getUserId();
+        products = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            products.add(OrderTestSupport.newProduct(productRepository, "Query count product " + i, 10 + i, 1000));
+            cartService.addItemToCart(userId, products.get(i).getProductId(), i + 1);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(checkoutPipeline, "checkoutExecutor", pipelineExecutor);
+    }
+
+    @Test
+    void cartReadIsASingleStatementRegardlessOfItemCount() {
+        statistics.clear();
+
+        CartView cart = CartView.from(cartService.getCartByUserId(userId));
+
+        assertEquals(ITEM_COUNT, cart.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void removingAnItemLeavesTheRestOfTheCart() {
+        cartService.removeItemFromCart(userId, products.get(0).getProductId());
+
+        CartView cart = CartView.from(cartService.getCartByUserId(userId));
+        assertEquals(ITEM_COUNT - 1, cart.getItems().size());
+    }
+
+    @Test
+    void orderHistoryIsASingleStatementRegardlessOfOrderAndItemCount() {
+        orderService.placeOrder(userId);
+        cartService.addItemToCart(userId, products.get(0).getProductId(), 1);
+        orderService.placeOrder(userId);
+        statistics.clear();
+
+        List<OrderView> orders = OrderView.fromAll(orderService.getOrdersByUser(userId));
+
+        assertEquals(2, orders.size());
+        assertEquals(ITEM_COUNT + 1, orders.stream().mapToInt(o -> o.getItems().size()).sum());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void singleOrderReadIsASingleStatement() {
+        Long orderId = orderService.placeOrder(userId).getOrderId();
+        statistics.clear();
+
+        OrderView order = OrderView.from(orderService.getOrderById(orderId));
+
+        assertEquals(ITEM_COUNT, order.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CatalogStatsAggregatorTests {
+
+    private static final Category AUDIO = new Category(1L, "Audio");
+    private static final Category HOME = new Category(2L, "Home");
+
+    private CatalogStatsAggregator aggregator;
+    // What the stubbed repository's aggregate queries return
+    private Supplier<List<Object[]>> categoryRows = List::of;
+    private Supplier<List<Object[]>> priceRows = List::of;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new CatalogStatsAggregator();
+        ReflectionTestUtils.setField(aggregator, "productRepository", Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(), new Class<?>[]{ProductRepository.class}, (proxy, method, args) ->
+                        switch (method.getName()) {
+                            case "aggregateByCategory" -> categoryRows.get();
+                            case "countByPrice" -> priceRows.get();
+                            case "toString" -> "stub ProductRepository";
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        }));
+    }
+
+    @Test
+    void deltasKeepTotalsAndCategoriesInStep() {
+        Product headphones = product(1L, 100, 5, AUDIO);
+        Product speaker = product(2L, 300, 2, AUDIO);
+        Product lamp = product(3L, 50, 10, HOME);
+        aggregator.onProductCreated(headphones);
+        aggregator.onProductCreated(speaker);
+        aggregator.onProductCreated(lamp);
+
+        CatalogStatsAggregator.Contribution before = CatalogStatsAggregator.Contribution.of(speaker);
+        aggregator.onProductUpdated(before, product(2L, 200, 2, HOME));
+        aggregator.onStockChanged(AUDIO.getCategoryId(), -3);
+
+        Map<String, Object> stats = aggregator.snapshot();
+        assertEquals(3L, stats.get("totalProducts"));
+        assertEquals(14L, stats.get("totalStock"));
+        assertEquals(350.0 / 3, (double) stats.get("averagePrice"), 1e-9);
+        Map<String, Object> audio = category(stats, AUDIO.getCategoryId());
+        assertEquals(1L, audio.get("productCount"));
+        assertEquals(2L, audio.get("totalStock"));
+        Map<String, Object> home = category(stats, HOME.getCategoryId());
+        assertEquals(2L, home.get("productCount"));
+        assertEquals(125.0, home.get("averagePrice"));
+
+        aggregator.onProductDeleted(product(1L, 100, 2, AUDIO));
+        stats = aggregator.snapshot();
+        assertEquals(1, stats.get("totalCategories"));
+        assertNull(category(stats, AUDIO.getCategoryId()));
+    }
+
+    // Counted per price, so removing one of two products at the extreme keeps it
+    @Test
+    void minAndMaxPriceSurviveDeletes() {
+        aggregator.onProductCreated(product(1L, 10, 1, AUDIO));
+        aggregator.onProductCreated(product(2L, 10, 1, AUDIO));
+        aggregator.onProductCreated(product(3L, 90, 1, HOME));
+
+        aggregator.onProductDeleted(product(1L, 10, 1, AUDIO));
+        assertEquals(10.0, aggregator.snapshot().get("minPrice"));
+
+        aggregator.onProductDeleted(product(2L, 10, 1, AUDIO));
+        assertEquals(90.0, aggregator.snapshot().get("minPrice"));
+        assertEquals(90.0, aggregator.snapshot().get("maxPrice"));
+    }
+
+    @Test
+    void reconcileReplacesDriftedTotals() {
+        aggregator.onProductCreated(product(1L, 100, 5, AUDIO));
+        aggregator.onStockChanged(AUDIO.getCategoryId(), 1000);
+        categoryRows = () -> List.<Object[]>of(
+                new Object[]{1L, "Audio", 2L, 400.0, 7L},
+                new Object[]{2L, "Home", 1L, 50.0, 10L});
+        priceRows = () -> List.<Object[]>of(new Object[]{100.0, 1L}, new Object[]{300.0, 1L}, new Object[]{50.0, 1L});
+
+        Map<String, Object> stats = aggregator.reconcile();
+
+        assertEquals(3L, stats.get("totalProducts"));
+        assertEquals(17L, stats.get("totalStock"));
+        assertEquals(50.0, stats.get("minPrice"));
+        assertEquals(300.0, stats.get("maxPrice"));
+        assertEquals(stats, aggregator.snapshot());
+    }
+
+    // A write landing while the aggregate queries run is already missing from their rows,
+    // so it has to be replayed on top of them rather than lost in the swap
+    @Test
+    void deltaAppliedDuringReconcileIsKept() {
+        categoryRows = () -> {
+            aggregator.onProductCreated(product(9L, 70, 4, HOME));
+            return List.<Object[]>of(new Object[]{1L, "Audio", 1L, 100.0, 5L});
+        };
+        priceRows = () -> List.<Object[]>of(new Object[]{100.0, 1L});
+
+        Map<String, Object> stats = aggregator.reconcile();
+
+        assertEquals(2L, stats.get("totalProducts"));
+        assertEquals(9L, stats.get("totalStock"));
+        assertEquals(70.0, stats.get("minPrice"));
+        assertEquals(1L, category(stats, HOME.getCategoryId()).get("productCount"));
+
+        // Once reconciled, deltas are no longer recorded for replay
+        categoryRows = () -> List.<Object[]>of(new Object[]{1L, "Audio", 1L, 100.0, 5L});
+        assertEquals(1L, aggregator.reconcile().get("totalProducts"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> category(Map<String, Object> stats, Long categoryId) {
+        for (Map<String, Object> category : (List<Map<String, Object>>) stats.get("categories")) {
+            if (categoryId.equals(category.get("categoryId"))) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    private static Product product(Long id, double price, int stock, Category category) {
+        return new Product(id, "Stats product", null, price, stock, category);
+    }
+}
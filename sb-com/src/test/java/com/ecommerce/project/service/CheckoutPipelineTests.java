@@ -0,0 +1,207 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.OrderRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class CheckoutPipelineTests {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CheckoutPipeline checkoutPipeline;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = OrderTestSupport.newCustomer(userRepository, "pipeline").getUserId();
+    }
+
+    @Test
+    void acceptedOrderIsReservedAndPlaced() throws Exception {
+        Product product = createProduct(10);
+        cartService.addItemToCart(userId, product.getProductId(), 4);
+
+        Order order = orderService.placeOrder(userId);
+
+        assertEquals(Order.Status.ACCEPTED, order.getStatus());
+        assertTrue(cartService.getCartByUserId(userId).getItems().isEmpty());
+        assertEquals(Order.Status.PLACED, OrderTestSupport.awaitCompletion(orderService, order.getOrderId()));
+        assertEquals(6, productRepository.findById(product.getProductId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void shortageRejectsTheOrderAndRestoresTheCart() throws Exception {
+        Product plenty = createProduct(10);
+        Product scarce = createProduct(1);
+        cartService.addItemToCart(userId, plenty.getProductId(), 2);
+        cartService.addItemToCart(userId, scarce.getProductId(), 3);
+
+        Order order = orderService.placeOrder(userId);
+
+        assertEquals(Order.Status.REJECTED, OrderTestSupport.awaitCompletion(orderService, order.getOrderId()));
+        // All-or-nothing: the item that was in stock was not taken either
+        assertEquals(10, productRepository.findById(plenty.getProductId()).orElseThrow().getStock());
+        assertEquals(1, productRepository.findById(scarce.getProductId()).orElseThrow().getStock());
+        Cart cart = awaitRestoredCart();
+        assertEquals(2, cart.getItems().size());
+    }
+
+    @Test
+    void transientDatabaseErrorLeavesTheOrderForRetry() {
+        Product product = createProduct(10);
+        cartService.addItemToCart(userId, product.getProductId(), 2);
+        Long orderId = withFailingInventory(new CannotAcquireLockException("lock wait timeout"), () -> {
+            Long id = orderService.placeOrder(userId).getOrderId();
+            checkoutPipeline.process(id);
+            return id;
+        });
+
+        assertEquals(Order.Status.ACCEPTED, orderService.getOrderStatus(orderId));
+        assertTrue(cartService.getCartByUserId(userId).getItems().isEmpty());
+
+        // What the recovery sweep does once the database is healthy again
+        checkoutPipeline.process(orderId);
+        assertEquals(Order.Status.PLACED, orderService.getOrderStatus(orderId));
+        assertEquals(8, productRepository.findById(product.getProductId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void permanentFailureRestoresTheCart() {
+        Product first = createProduct(10);
+        Product second = createProduct(10);
+        cartService.addItemToCart(userId, first.getProductId(), 1);
+        cartService.addItemToCart(userId, second.getProductId(), 2);
+        Long orderId = withFailingInventory(new IllegalStateException("inventory bug"), () -> {
+            Long id = orderService.placeOrder(userId).getOrderId();
+            checkoutPipeline.process(id);
+            return id;
+        });
+
+        assertEquals(Order.Status.FAILED, orderService.getOrderStatus(orderId));
+        assertEquals(2, cartService.getCartByUserId(userId).getItems().size());
+    }
+
+    @Test
+    void failureAfterReservationReturnsTheStock() {
+        Product product = createProduct(10);
+        cartService.addItemToCart(userId, product.getProductId(), 3);
+        Long orderId = withFailingPlacement(new IllegalStateException("placement bug"), () -> {
+            Long id = orderService.placeOrder(userId).getOrderId();
+            checkoutPipeline.process(id);
+            return id;
+        });
+
+        assertEquals(Order.Status.FAILED, orderService.getOrderStatus(orderId));
+        assertEquals(10, productRepository.findById(product.getProductId()).orElseThrow().getStock());
+        assertEquals(1, cartService.getCartByUserId(userId).getItems().size());
+    }
+
+    @Test
+    void repeatedTransientFailuresEventuallyFailTheOrder() {
+        Product product = createProduct(10);
+        cartService.addItemToCart(userId, product.getProductId(), 2);
+        int maxAttempts = (int) ReflectionTestUtils.getField(checkoutPipeline, "maxAttempts");
+        Long orderId = withFailingPlacement(new CannotAcquireLockException("lock wait timeout"), () -> {
+            Long id = orderService.placeOrder(userId).getOrderId();
+            for (int attempt = 1; attempt < maxAttempts; attempt++) {
+                checkoutPipeline.process(id);
+                assertEquals(Order.Status.RESERVED, orderService.getOrderStatus(id));
+            }
+            checkoutPipeline.process(id);
+            return id;
+        });
+
+        assertEquals(Order.Status.FAILED, orderService.getOrderStatus(orderId));
+        assertEquals(10, productRepository.findById(product.getProductId()).orElseThrow().getStock());
+    }
+
+    // Runs the pipeline only when the test calls process(), with the RESERVED -> PLACED step throwing the given error
+    private Long withFailingPlacement(RuntimeException error, Supplier<Long> body) {
+        Object executor = ReflectionTestUtils.getField(checkoutPipeline, "checkoutExecutor");
+        ReflectionTestUtils.setField(checkoutPipeline, "checkoutExecutor", (Executor) task -> {});
+        ReflectionTestUtils.setField(checkoutPipeline, "orderRepository", Proxy.newProxyInstance(
+                OrderRepository.class.getClassLoader(), new Class<?>[]{OrderRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("transitionStatus") && args[2] == Order.Status.PLACED) {
+                        throw error;
+                    }
+                    try {
+                        return method.invoke(orderRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }));
+        try {
+            return body.get();
+        } finally {
+            ReflectionTestUtils.setField(checkoutPipeline, "checkoutExecutor", executor);
+            ReflectionTestUtils.setField(checkoutPipeline, "orderRepository", orderRepository);
+        }
+    }
+
+    // Runs the pipeline only when the test calls process(), with stock reservation throwing the given error
+    private Long withFailingInventory(RuntimeException error, Supplier<Long> body) {
+        Object executor = ReflectionTestUtils.getField(checkoutPipeline, "checkoutExecutor");
+        Object inventory = ReflectionTestUtils.getField(checkoutPipeline, "inventoryService");
+        ReflectionTestUtils.setField(checkoutPipeline, "checkoutExecutor", (Executor) task -> {});
+        ReflectionTestUtils.setField(checkoutPipeline, "inventoryService", new InventoryService() {
+            @Override
+            public void reserve(Collection<StockLine> lines) {
+                throw error;
+            }
+
+            @Override
+            public void release(Collection<StockLine> lines) {
+            }
+        });
+        try {
+            return body.get();
+        } finally {
+            ReflectionTestUtils.setField(checkoutPipeline, "checkoutExecutor", executor);
+            ReflectionTestUtils.setField(checkoutPipeline, "inventoryService", inventory);
+        }
+    }
+
+    // The cart is restored right after the REJECTED transition commits
+    private Cart awaitRestoredCart() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        Cart cart = cartService.getCartByUserId(userId);
+        while (cart.getItems().size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            cart = cartService.getCartByUserId(userId);
+        }
+        return cart;
+    }
+
+    private Product createProduct(int stock) {
+        return OrderTestSupport.newProduct(productRepository, "Pipeline product", 15, stock);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class IdempotentCheckoutTests {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Long userId;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        userId = OrderTestSupport.newCustomer(userRepository, "idempotency").getUserId();
+        product = OrderTestSupport.newProduct(productRepository, "Idempotency product", 40, 100);
+        OrderTestSupport.fillCart(cartService, userId, List.of(product), 3);
+    }
+
+    @Test
+    void racingDuplicatesGetTheSameOrder() throws Exception {
+        String key = "checkout-" + System.nanoTime();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return orderService.placeOrder(userId, key).getOrderId();
+            }));
+        }
+        start.countDown();
+        Set<Long> orderIds = new HashSet<>();
+        for (Future<Long> result : results) {
+            orderIds.add(result.get());
+        }
+        executor.shutdown();
+
+        assertEquals(1, orderIds.size());
+        assertEquals(1, orderService.getOrdersByUser(userId).size());
+        assertEquals(Order.Status.PLACED, OrderTestSupport.awaitCompletion(orderService, orderIds.iterator().next()));
+        assertEquals(97, productRepository.findById(product.getProductId()).orElseThrow().getStock());
+
+        // A late retry replays the original order, even though the cart is now empty
+        assertEquals(orderIds.iterator().next(), orderService.placeOrder(userId, key).getOrderId());
+    }
+
+    @Test
+    void failedAttemptIsNotRemembered() {
+        String key = "checkout-" + System.nanoTime();
+        cartService.clearCart(userId);
+        ResponseStatusException empty = assertThrows(ResponseStatusException.class,
+                () -> orderService.placeOrder(userId, key));
+        assertEquals(HttpStatus.BAD_REQUEST, empty.getStatusCode());
+
+        cartService.addItemToCart(userId, product.getProductId(), 1);
+        Long orderId = orderService.placeOrder(userId, key).getOrderId();
+        assertEquals(orderId, orderService.placeOrder(userId, key).getOrderId());
+        assertEquals(1, orderService.getOrdersByUser(userId).size());
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class InventoryContentionTests {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 200;
+
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void hotSkuNeverOversells() throws Exception {
+        // Less stock than attempts, so the last buyers must be turned away
+        int initialStock = THREADS * ATTEMPTS_PER_THREAD - 500;
+        Product hot = createProduct("Hot SKU", initialStock);
+
+        Result result = run(() -> hot);
+
+        assertEquals(initialStock, result.reserved);
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - initialStock, result.rejected);
+        assertEquals(0, productRepository.findById(hot.getProductId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void spreadWorkloadReservesEveryUnit() throws Exception {
+        List<Product> skus = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            skus.add(createProduct("Spread SKU " + i, THREADS * ATTEMPTS_PER_THREAD));
+        }
+
+        Result result = run(() -> skus.get(ThreadLocalRandom.current().nextInt(skus.size())));
+
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, result.reserved);
+        long remaining = 0;
+        for (Product sku : skus) {
+            remaining += productRepository.findById(sku.getProductId()).orElseThrow().getStock();
+        }
+        assertEquals((long) skus.size() * THREADS * ATTEMPTS_PER_THREAD - result.reserved, remaining);
+    }
+
+    @Test
+    void releaseReturnsWhatWasReserved() {
+        Product first = createProduct("Release SKU A", 5);
+        Product second = createProduct("Release SKU B", 5);
+        List<InventoryService.StockLine> lines = List.of(
+                InventoryService.StockLine.of(first, 2),
+                InventoryService.StockLine.of(second, 1),
+                InventoryService.StockLine.of(first, 1));
+
+        inventoryService.reserve(lines);
+        assertEquals(2, productRepository.findById(first.getProductId()).orElseThrow().getStock());
+        assertEquals(4, productRepository.findById(second.getProductId()).orElseThrow().getStock());
+
+        inventoryService.release(lines);
+        assertEquals(5, productRepository.findById(first.getProductId()).orElseThrow().getStock());
+        assertEquals(5, productRepository.findById(second.getProductId()).orElseThrow().getStock());
+    }
+
+    private Result run(java.util.function.Supplier<Product> pick) throws InterruptedException {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        inventoryService.reserve(List.of(InventoryService.StockLine.of(pick.get(), 1)));
+                        reserved.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        return new Result(reserved.get(), rejected.get());
+    }
+
+    private Product createProduct(String name, int stock) {
+        return OrderTestSupport.newProduct(productRepository, name, 99, stock);
+    }
+
+    private record Result(int reserved, int rejected) {}
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.dto.CursorPage;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.CategoryRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class KeysetPaginationTests {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Long categoryId;
+    private List<Long> ids;
+
+    // A category of its own, so other tests' products never land in these pages
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(new Category(null, "Keyset " + System.nanoTime()));
+        categoryId = category.getCategoryId();
+        ids = new ArrayList<>();
+        for (double price : new double[]{30, 10, 20, 10, 20}) {
+            Product product = new Product(null, "Keyset product", null, price, 1, category);
+            ids.add(productRepository.save(product).getProductId());
+        }
+    }
+
+    @Test
+    void idPagesCoverEveryRowOnceAndStopAtTheLast() {
+        List<CursorPage<Product>> pages = pageThrough(2, "id");
+
+        assertEquals(List.of(2, 2, 1), pages.stream().map(CursorPage::getSize).toList());
+        assertTrue(pages.get(0).isHasMore());
+        assertTrue(pages.get(1).isHasMore());
+        assertFalse(pages.get(2).isHasMore());
+        assertNull(pages.get(2).getNextCursor());
+        assertEquals(ids, idsOf(pages));
+    }
+
+    // Equal prices are ordered by id, so rows sharing a price are neither skipped nor repeated across pages
+    @Test
+    void pricePagesBreakTiesById() {
+        List<CursorPage<Product>> pages = pageThrough(2, "price");
+
+        assertEquals(List.of(ids.get(1), ids.get(3), ids.get(2), ids.get(4), ids.get(0)), idsOf(pages));
+    }
+
+    // The extra row fetched to detect a next page must not produce an empty trailing page
+    @Test
+    void exactlyFullLastPageHasNoNextCursor() {
+        List<CursorPage<Product>> pages = pageThrough(5, "id");
+
+        assertEquals(1, pages.size());
+        assertEquals(5, pages.get(0).getSize());
+        assertFalse(pages.get(0).isHasMore());
+        assertNull(pages.get(0).getNextCursor());
+    }
+
+    private List<CursorPage<Product>> pageThrough(int size, String sort) {
+        List<CursorPage<Product>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Product> page = productService.getProductsByCategoryAfter(categoryId, cursor, size, sort);
+            pages.add(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private static List<Long> idsOf(List<CursorPage<Product>> pages) {
+        return pages.stream().flatMap(page -> page.getItems().stream()).map(Product::getProductId).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRateLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void admitsBurstThenRefillsAtConfiguredRate() {
+        AtomicLong clock = new AtomicLong(1_000 * SECOND);
+        LocalRateLimiter limiter = new LocalRateLimiter(1_000, Duration.ofMinutes(1), clock::get);
+        RateLimiter.Limit limit = RateLimiter.Limit.of(5, 2.0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("client", limit), "request " + i + " of the burst");
+        }
+        long wait = limiter.tryAcquire("client", limit);
+        assertEquals(SECOND / 2, wait);
+
+        // Other clients have their own buckets
+        assertEquals(0, limiter.tryAcquire("other", limit));
+
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, limiter.tryAcquire("client", limit));
+        assertTrue(limiter.tryAcquire("client", limit) > 0);
+
+        // Idle long enough to refill completely, but never beyond capacity
+        clock.addAndGet(60 * SECOND);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("client", limit));
+        }
+        assertTrue(limiter.tryAcquire("client", limit) > 0);
+    }
+
+    // Racing CAS updates must neither lose nor double-spend tokens
+    @Test
+    void concurrentCallersShareOneBucketExactly() throws Exception {
+        AtomicLong clock = new AtomicLong(0);
+        LocalRateLimiter limiter = new LocalRateLimiter(1_000, Duration.ofMinutes(1), clock::get);
+        RateLimiter.Limit limit = RateLimiter.Limit.of(1_000, 1.0);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < 8; t++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < 500; i++) {
+                        if (limiter.tryAcquire("hot", limit) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        }
+        assertEquals(1_000, admitted.get());
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.CartRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderPlacementBatchingTests {
+
+    private static final int[] ITEM_COUNTS = {1, 5, 20, 50};
+    // Acceptance: cart graph read, id sequence calls, order insert, item insert batch, bulk cart delete
+    private static final long MAX_ACCEPT_STATEMENTS = 7;
+    // Pipeline: order graph read, two status transitions, plus one stock decrement per product
+    private static final long MAX_PIPELINE_FIXED_STATEMENTS = 4;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CheckoutPipeline checkoutPipeline;
+
+    private Statistics statistics;
+    private List<Product> products;
+    // Pipeline stages are queued here and run by the test, so the two phases can be measured apart
+    private final List<Runnable> deferred = new ArrayList<>();
+    private Object pipelineExecutor;
+
+    @BeforeEach
+    void setUp() {
+        pipelineExecutor = ReflectionTestUtils.getField(checkoutPipeline, "checkoutExecutor");
+        ReflectionTestUtils.setField(checkoutPipeline, "checkoutExecutor", (Executor) deferred::add);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            catalog.add(OrderTestSupport.newProduct(productRepository, "Batch product " + i, 10 + i, 1000));
+        }
+        products = catalog;
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(checkoutPipeline, "checkoutExecutor", pipelineExecutor);
+    }
+
+    @Test
+    void statementCountsStayBoundedAsTheCartGrows() {
+        // Warm-up checkout, so one-off work on the first order does not count against the smallest cart
+        Long warmUp = newUserWithCart(5);
+        checkout(warmUp, 5);
+        runDeferred();
+
+        for (int itemCount : ITEM_COUNTS) {
+            Long userId = newUserWithCart(itemCount);
+
+            statistics.clear();
+            Long orderId = checkout(userId, itemCount);
+            long acceptStatements = statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            runDeferred();
+            long pipelineStatements = statistics.getPrepareStatementCount();
+
+            assertTrue(acceptStatements <= MAX_ACCEPT_STATEMENTS,
+                    itemCount + " items took " + acceptStatements + " statements to accept");
+            assertTrue(pipelineStatements <= MAX_PIPELINE_FIXED_STATEMENTS + itemCount,
+                    itemCount + " items took " + pipelineStatements + " pipeline statements");
+            assertEquals(Order.Status.PLACED, orderService.getOrderStatus(orderId));
+            assertTrue(cartRepository.findWithItemsByUserId(userId).orElseThrow().getItems().isEmpty());
+        }
+    }
+
+    private void runDeferred() {
+        List<Runnable> tasks = new ArrayList<>(deferred);
+        deferred.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private Long checkout(Long userId, int itemCount) {
+        Order order = orderService.placeOrder(userId);
+        assertEquals(itemCount, order.getItems().size());
+        return order.getOrderId();
+    }
+
+    private Long newUserWithCart(int itemCount) {
+        Long userId = OrderTestSupport.newCustomer(userRepository, "batching").getUserId();
+        OrderTestSupport.fillCart(cartService, userId, products.subList(0, itemCount), 1);
+        return userId;
+    }
+}
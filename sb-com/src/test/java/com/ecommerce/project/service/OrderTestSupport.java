@@ -0,0 +1,56 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.repositories.UserRepository;
+
+import java.util.List;
+
+final class OrderTestSupport {
+
+    private OrderTestSupport() {}
+
+    // A customer with a unique username, so tests sharing a context never collide
+    static User newCustomer(UserRepository userRepository, String prefix) {
+        return newCustomer(userRepository, prefix, "secret");
+    }
+
+    static User newCustomer(UserRepository userRepository, String prefix, String password) {
+        User user = new User();
+        user.setUsername(prefix + "-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword(password);
+        user.setRole(User.Role.CUSTOMER);
+        return userRepository.save(user);
+    }
+
+    static Product newProduct(ProductRepository productRepository, String name, double price, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
+
+    // Adds each product to the user's cart with the same quantity
+    static void fillCart(CartService cartService, Long userId, List<Product> products, int quantity) {
+        for (Product product : products) {
+            cartService.addItemToCart(userId, product.getProductId(), quantity);
+        }
+    }
+
+    // Polls until the checkout pipeline has finished with the order
+    static Order.Status awaitCompletion(OrderService orderService, Long orderId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Order.Status status = orderService.getOrderStatus(orderId);
+            if (status != Order.Status.ACCEPTED && status != Order.Status.RESERVED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Order " + orderId + " did not complete");
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class PasswordHashingTests {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void loginUpgradesHashMadeWithOlderCostFactor() throws Exception {
+        User user = OrderTestSupport.newCustomer(userRepository, "rehash", new BCryptPasswordEncoder(4).encode("secret"));
+        Long userId = user.getUserId();
+
+        Optional<User> loggedIn = userService.login(user.getUsername(), "secret").get(10, TimeUnit.SECONDS);
+        assertTrue(loggedIn.isPresent());
+
+        String hash = null;
+        for (int i = 0; i < 100; i++) {
+            hash = userRepository.findById(userId).orElseThrow().getPassword();
+            if (hash.startsWith("$2a$10$")) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertTrue(hash.startsWith("$2a$10$"), "hash not upgraded: " + hash);
+        assertTrue(userService.login(user.getUsername(), "secret").get(10, TimeUnit.SECONDS).isPresent());
+        assertTrue(userService.login(user.getUsername(), "wrong").get(10, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void hashingBeyondQueueCapacityIsRefused() throws Exception {
+        Object original = ReflectionTestUtils.getField(passwordHashingService, "passwordHashingExecutor");
+        ThreadPoolExecutor tiny = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ReflectionTestUtils.setField(passwordHashingService, "passwordHashingExecutor", tiny);
+            tiny.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            passwordHashingService.encode("queued");
+
+            PasswordHashingService.HashingBusyException busy = assertThrows(
+                    PasswordHashingService.HashingBusyException.class,
+                    () -> passwordHashingService.encode("refused"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, busy.getStatusCode());
+            assertEquals("1", busy.getHeaders().getFirst("Retry-After"));
+        } finally {
+            release.countDown();
+            ReflectionTestUtils.setField(passwordHashingService, "passwordHashingExecutor", original);
+            tiny.shutdown();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductCursorTests {
+
+    @Test
+    void idCursorRoundTrips() {
+        String encoded = ProductCursor.after(ProductCursor.SORT_ID, product(42L, 9.5)).encode();
+
+        ProductCursor decoded = ProductCursor.decode(encoded, null);
+
+        assertEquals(ProductCursor.SORT_ID, decoded.getSort());
+        assertEquals(42L, decoded.getLastId());
+        assertFalse(decoded.byPrice());
+    }
+
+    @Test
+    void priceCursorRoundTripsWithItsTieBreaker() {
+        String encoded = ProductCursor.after(ProductCursor.SORT_PRICE, product(7L, 1799.99)).encode();
+
+        ProductCursor decoded = ProductCursor.decode(encoded, "PRICE");
+
+        assertTrue(decoded.byPrice());
+        assertEquals(1799.99, decoded.getLastPrice());
+        assertEquals(7L, decoded.getLastId());
+    }
+
+    @Test
+    void missingCursorStartsBeforeEveryRow() {
+        ProductCursor start = ProductCursor.decode(null, "price");
+
+        assertTrue(start.byPrice());
+        assertEquals(0L, start.getLastId());
+        assertEquals(-Double.MAX_VALUE, start.getLastPrice());
+        assertEquals(ProductCursor.SORT_ID, ProductCursor.decode("", null).getSort());
+    }
+
+    @Test
+    void malformedOrMismatchedCursorsAreBadRequests() {
+        assertBadRequest(() -> ProductCursor.decode("not base64!", null));
+        assertBadRequest(() -> ProductCursor.decode(raw("id:abc"), null));
+        assertBadRequest(() -> ProductCursor.decode(raw("price:10.0"), null));
+        assertBadRequest(() -> ProductCursor.decode(raw("name:3"), null));
+        String idCursor = ProductCursor.after(ProductCursor.SORT_ID, product(3L, 10)).encode();
+        assertBadRequest(() -> ProductCursor.decode(idCursor, "price"));
+        assertBadRequest(() -> ProductCursor.normalizeSort("name"));
+    }
+
+    private static void assertBadRequest(Runnable decode) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, decode::run);
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Product product(Long id, double price) {
+        return new Product(id, "Cursor product", null, price, 1, null);
+    }
+}
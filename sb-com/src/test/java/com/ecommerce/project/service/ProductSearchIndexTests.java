@@ -0,0 +1,83 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTests {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(
+                product(1L, "Wireless Headphones", "High-fidelity sound, noise cancelling."),
+                product(2L, "Wired Earbuds", "Compact headphones for travel."),
+                product(3L, "Headphone Stand", "Aluminium stand."),
+                product(4L, "Desk Lamp", "Warm light for late-night work.")));
+    }
+
+    @Test
+    void tokenizeLowercasesAndSplitsOnPunctuation() {
+        assertEquals(List.of("high", "fidelity", "sound", "noise"), ProductSearchIndex.tokenize("High-fidelity SOUND, noise!"));
+        assertTrue(ProductSearchIndex.tokenize("  --  ").isEmpty());
+        assertTrue(ProductSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        assertEquals(List.of(1L, 2L), ids(index.search("headphones")));
+    }
+
+    @Test
+    void prefixesMatchButRankBelowWholeWords() {
+        // "headphone" is a whole word in product 3's name and a prefix of "headphones" elsewhere
+        assertEquals(List.of(3L, 1L, 2L), ids(index.search("headphone")));
+        assertEquals(List.of(1L, 2L), ids(index.search("wire")));
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        assertEquals(List.of(1L), ids(index.search("wireless noise")));
+        assertTrue(index.search("wireless lamp").isEmpty());
+        assertTrue(index.search("").isEmpty());
+    }
+
+    @Test
+    void reindexReplacesOldTermsAndRemoveDropsTheProduct() {
+        index.index(product(4L, "Floor Lamp", "Tall reading light."));
+        assertTrue(index.search("desk").isEmpty());
+        assertEquals(List.of(4L), ids(index.search("floor")));
+
+        index.remove(4L);
+        assertTrue(index.search("lamp").isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void adjustStockSwapsInACopy() {
+        Product before = index.search("lamp").get(0);
+
+        index.adjustStock(4L, -3);
+
+        Product after = index.search("lamp").get(0);
+        assertEquals(7, after.getStock());
+        assertEquals(10, before.getStock());
+        assertNotSame(before, after);
+    }
+
+    private static Product product(Long id, String name, String description) {
+        return new Product(id, name, description, 100, 10, null);
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getProductId).toList();
+    }
+}
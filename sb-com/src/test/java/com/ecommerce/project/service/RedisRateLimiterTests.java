@@ -0,0 +1,53 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisRateLimiterTests {
+
+    private final AtomicInteger redisCalls = new AtomicInteger();
+    private volatile boolean redisDown = true;
+
+    @Test
+    void skipsRedisWhileDegradedAndProbesAfterTheRetryInterval() throws InterruptedException {
+        RedisRateLimiter limiter = limiter(Duration.ofMillis(200));
+        RateLimiter.Limit limit = RateLimiter.Limit.of(2, 1.0);
+
+        assertEquals(0, limiter.tryAcquire("client", limit));
+        assertEquals(0, limiter.tryAcquire("client", limit));
+        // Served by the local buckets without another round trip to Redis
+        assertTrue(limiter.tryAcquire("client", limit) > 0);
+        assertEquals(1, redisCalls.get());
+
+        redisDown = false;
+        Thread.sleep(250);
+        assertEquals(0, limiter.tryAcquire("client", limit));
+        assertEquals(2, redisCalls.get());
+        assertEquals(0, limiter.tryAcquire("client", limit));
+        assertEquals(3, redisCalls.get());
+    }
+
+    private RedisRateLimiter limiter(Duration retryInterval) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRedisRetryInterval(retryInterval);
+        RedisRateLimiter limiter = new RedisRateLimiter(properties);
+        ReflectionTestUtils.setField(limiter, "redisService", new RedisService() {
+            @Override
+            public long acquireRateLimitToken(String key, long intervalNanos, long burstNanos) {
+                redisCalls.incrementAndGet();
+                if (redisDown) {
+                    throw new IllegalStateException("Redis is down");
+                }
+                return 0;
+            }
+        });
+        return limiter;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.config.QueryCountingFilter;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.repositories.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Own database: a context sharing the default one would recreate its schema under the other cached contexts
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.datasource.url=jdbc:h2:mem:service-metrics"})
+class ServiceMetricsTests {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private QueryCountingFilter queryCountingFilter;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void serviceCallsAreTimedByOutcome() {
+        Product product = saveProduct();
+        long success = serviceCalls("product", "getProductById", "none");
+        long error = serviceCalls("product", "getProductById", "ResponseStatusException");
+        double l1Hits = meterRegistry.get("cache.gets").tag("cache", "product.l1").tag("result", "hit")
+                .functionCounter().count();
+
+        productService.getProductById(product.getProductId());
+        productService.getProductById(product.getProductId());
+        assertThrows(ResponseStatusException.class, () -> productService.getProductById(-1L));
+
+        assertEquals(success + 2, serviceCalls("product", "getProductById", "none"));
+        assertEquals(error + 1, serviceCalls("product", "getProductById", "ResponseStatusException"));
+        // The first lookup populated the near cache, the second was served from it
+        assertEquals(l1Hits + 1, meterRegistry.get("cache.gets").tag("cache", "product.l1").tag("result", "hit")
+                .functionCounter().count());
+        assertTrue(meterRegistry.get("cache.hit.ratio").tag("cache", "product.l1").gauge().value() > 0);
+    }
+
+    @Test
+    void checkoutRecordsItemsPerOrder() {
+        Long userId = OrderTestSupport.newCustomer(userRepository, "metrics").getUserId();
+        cartService.addItemToCart(userId, saveProduct().getProductId(), 2);
+        cartService.addItemToCart(userId, saveProduct().getProductId(), 3);
+        DistributionSummary items = meterRegistry.get("orders.checkout.items").summary();
+        DistributionSummary units = meterRegistry.get("orders.checkout.units").summary();
+        long orders = items.count();
+        double itemTotal = items.totalAmount();
+        double unitTotal = units.totalAmount();
+
+        orderService.placeOrder(userId);
+
+        assertEquals(orders + 1, items.count());
+        assertEquals(itemTotal + 2, items.totalAmount());
+        assertEquals(unitTotal + 5, units.totalAmount());
+
+        // An order that rolls back is not counted
+        cartService.addItemToCart(userId, saveProduct().getProductId(), 4);
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.placeOrder(userId);
+            status.setRollbackOnly();
+        });
+        assertEquals(orders + 1, items.count());
+        assertEquals(unitTotal + 5, units.totalAmount());
+    }
+
+    @Test
+    void statementsAreCountedPerRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/metrics-test");
+        queryCountingFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/metrics-test");
+            productRepository.count();
+            productRepository.existsById(1L);
+        });
+        // Queries outside a request are not attributed to anything
+        productRepository.count();
+
+        DistributionSummary queries = meterRegistry.get("http.server.requests.queries")
+                .tag("method", "GET").tag("uri", "/api/metrics-test").summary();
+        assertEquals(1, queries.count());
+        assertEquals(2, queries.totalAmount());
+    }
+
+    private long serviceCalls(String service, String method, String exception) {
+        Timer timer = meterRegistry.find("service.calls")
+                .tag("service", service).tag("method", method).tag("exception", exception).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private Product saveProduct() {
+        return OrderTestSupport.newProduct(productRepository, "Metrics product", 10, 100);
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class UserRegistrationTests {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void duplicateUsernameOrEmailIsConflict() {
+        String name = "dup-" + System.nanoTime();
+        userService.register(customer(name, name + "@example.com"));
+
+        ResponseStatusException sameName = assertThrows(ResponseStatusException.class,
+                () -> userService.register(customer(name, "other-" + name + "@example.com")));
+        assertEquals(HttpStatus.CONFLICT, sameName.getStatusCode());
+        assertEquals("Username already exists", sameName.getReason());
+
+        ResponseStatusException sameEmail = assertThrows(ResponseStatusException.class,
+                () -> userService.register(customer("other-" + name, name + "@example.com")));
+        assertEquals(HttpStatus.CONFLICT, sameEmail.getStatusCode());
+        assertEquals("Email already exists", sameEmail.getReason());
+    }
+
+    // Hashing runs on another thread, so a missing password must be caught before it gets there
+    @Test
+    void missingPasswordIsBadRequest() {
+        String name = "nopass-" + System.nanoTime();
+        for (String password : new String[] {null, ""}) {
+            User user = customer(name, name + "@example.com");
+            user.setPassword(password);
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> userService.register(user));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+
+        userService.register(customer(name, name + "@example.com"));
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> userService.updatePassword(name, null));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    // All racers pass the existence checks together; the unique constraint decides and losers get 409
+    // naming the username, whether the existence check or the violated constraint turned them away
+    @Test
+    void concurrentSignupsForSameUsernameYieldOneUser() throws Exception {
+        String name = "race-" + System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int n = i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        userService.register(customer(name, name + "-" + n + "@example.com"));
+                        return "created";
+                    } catch (ResponseStatusException e) {
+                        return e.getStatusCode().value() + " " + e.getReason();
+                    }
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int conflicts = 0;
+            for (Future<String> result : results) {
+                String outcome = result.get();
+                if (outcome.equals("created")) {
+                    created++;
+                } else if (outcome.equals("409 Username already exists")) {
+                    conflicts++;
+                }
+            }
+            assertEquals(1, created);
+            assertEquals(THREADS - 1, conflicts);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Databases created before the constraints were named report generated names like uk6dotkott2kjsp8vw4d0m25fb7
+    @Test
+    void generatedConstraintNamesFallBackToTheColumn() {
+        assertEquals("Email already exists", UserServiceImpl.conflictReason(violation("uk6dotkott2kjsp8vw4d0m25fb7",
+                "ERROR: duplicate key value violates unique constraint \"uk6dotkott2kjsp8vw4d0m25fb7\"\n"
+                        + "  Detail: Key (email)=(a@example.com) already exists.")));
+        assertEquals("Username already exists", UserServiceImpl.conflictReason(violation("uk_r43af9ap4edm43mmtq01oddj6",
+                "ERROR: duplicate key value violates unique constraint \"uk_r43af9ap4edm43mmtq01oddj6\"\n"
+                        + "  Detail: Key (username)=(alice) already exists.")));
+        assertEquals("Username or email already exists", UserServiceImpl.conflictReason(violation("uk_unknown",
+                "Duplicate entry 'alice' for key 'users.uk_unknown'")));
+    }
+
+    private static DataIntegrityViolationException violation(String constraint, String driverMessage) {
+        SQLException root = new SQLException(driverMessage, "23505");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", root, constraint));
+    }
+
+    private static User customer(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setRole(User.Role.CUSTOMER);
+        return user;
+    }
+}
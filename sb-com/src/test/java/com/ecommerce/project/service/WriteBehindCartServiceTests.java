@@ -0,0 +1,95 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repositories.CartRepository;
+import com.ecommerce.project.repositories.ProductRepository;
+import com.ecommerce.project.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"app.cart.write-behind.enabled=true", "app.cart.write-behind.flush-interval=1h"})
+class WriteBehindCartServiceTests {
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Long userId;
+    private Product first;
+    private Product second;
+
+    @BeforeEach
+    void setUp() {
+        userId = OrderTestSupport.newCustomer(userRepository, "writebehind").getUserId();
+        first = OrderTestSupport.newProduct(productRepository, "Write-behind product A", 25, 100);
+        second = OrderTestSupport.newProduct(productRepository, "Write-behind product B", 25, 100);
+    }
+
+    @Test
+    void mutationsStayInTheStoreUntilFlushed() {
+        assertInstanceOf(WriteBehindCartService.class, cartService);
+
+        cartService.addItemToCart(userId, first.getProductId(), 2);
+        cartService.addItemToCart(userId, first.getProductId(), 1);
+        cartService.addItemToCart(userId, second.getProductId(), 4);
+        cartService.updateItemQuantity(userId, second.getProductId(), 5);
+
+        assertEquals(Map.of(first.getProductId(), 3, second.getProductId(), 5), quantities(cartService.getCartByUserId(userId)));
+        assertTrue(cartRepository.findWithItemsByUserId(userId).isEmpty());
+
+        ((WriteBehindCartService) cartService).flush();
+        assertEquals(Map.of(first.getProductId(), 3, second.getProductId(), 5), persistedQuantities());
+
+        cartService.removeItemFromCart(userId, first.getProductId());
+        ((WriteBehindCartService) cartService).flush();
+        assertEquals(Map.of(second.getProductId(), 5), persistedQuantities());
+    }
+
+    @Test
+    void checkoutReadsTheLiveCartAndEmptiesIt() throws Exception {
+        cartService.addItemToCart(userId, first.getProductId(), 2);
+        cartService.addItemToCart(userId, second.getProductId(), 1);
+
+        Order order = orderService.placeOrder(userId);
+
+        assertEquals(2, order.getItems().size());
+        assertEquals(2 * first.getPrice() + second.getPrice(), order.getTotal());
+        assertTrue(cartService.getCartByUserId(userId).getItems().isEmpty());
+        assertEquals(Order.Status.PLACED, OrderTestSupport.awaitCompletion(orderService, order.getOrderId()));
+        assertEquals(98, productRepository.findById(first.getProductId()).orElseThrow().getStock());
+
+        ((WriteBehindCartService) cartService).flush();
+        assertTrue(persistedQuantities().isEmpty());
+    }
+
+    private Map<Long, Integer> persistedQuantities() {
+        return quantities(cartRepository.findWithItemsByUserId(userId).orElseThrow());
+    }
+
+    private static Map<Long, Integer> quantities(Cart cart) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            quantities.put(item.getProduct().getProductId(), item.getQuantity());
+        }
+        return quantities;
+    }
+}